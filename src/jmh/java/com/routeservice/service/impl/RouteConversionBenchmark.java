@@ -0,0 +1,52 @@
+package com.routeservice.service.impl;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteSearchResponseDTO;
+import com.routeservice.entity.Route;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route DTO conversion cost as a function of the number of stops on the route.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteConversionBenchmark {
+
+    @Param({"0", "10", "50"})
+    private int stops;
+
+    private Route route;
+    private RouteDTO routeDTO;
+
+    @Setup
+    public void setUp() {
+        route = SearchDatasets.route("R1", stops);
+        routeDTO = RouteMapper.toRouteDTO(route);
+    }
+
+    @Benchmark
+    public RouteDTO convertToRouteDTO() {
+        return RouteMapper.toRouteDTO(route);
+    }
+
+    @Benchmark
+    public RouteSearchResponseDTO convertToSearchResponseDTO() {
+        return RouteMapper.toSearchResponse(routeDTO);
+    }
+}
@@ -0,0 +1,85 @@
+package com.routeservice.service.impl;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteSearchResponseDTO;
+import com.routeservice.dto.TripDTO;
+import com.routeservice.search.TripIndex;
+import com.routeservice.search.TripSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building search responses from routes and bus-service trips, the CPU-bound part of
+ * {@code RouteServiceImpl.combine} (metrics and logging excluded).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchAggregationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int trips;
+
+    @Param({"1", "20"})
+    private int routes;
+
+    @Param({"10"})
+    private int stops;
+
+    private List<RouteDTO> routeList;
+    private List<TripDTO> tripList;
+    private List<TripDTO> firstRouteTrips;
+
+    @Setup
+    public void setUp() {
+        routeList = SearchDatasets.routeDTOs(routes, stops);
+        tripList = SearchDatasets.trips(routeList, trips);
+        firstRouteTrips = TripIndex.partition(routeList, tripList)
+                .getOrDefault(routeList.get(0).getRouteId(), TripIndex.RouteTrips.NONE).trips();
+    }
+
+    @Benchmark
+    public List<RouteSearchResponseDTO> combine() {
+        Map<String, TripIndex.RouteTrips> tripsByRoute = TripIndex.partition(routeList, tripList);
+        List<RouteSearchResponseDTO> responses = new ArrayList<>(routeList.size());
+        for (RouteDTO route : routeList) {
+            TripIndex.RouteTrips trips = tripsByRoute.getOrDefault(route.getRouteId(), TripIndex.RouteTrips.NONE);
+            RouteSearchResponseDTO response = RouteMapper.toSearchResponse(route, trips.trips());
+            response.setPairLevelTrips(trips.pairLevel());
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public Map<String, TripIndex.RouteTrips> partitionTrips() {
+        return TripIndex.partition(routeList, tripList);
+    }
+
+    @Benchmark
+    public RouteSearchResponseDTO createRouteSearchResponse() {
+        return RouteMapper.toSearchResponse(routeList.get(0), firstRouteTrips);
+    }
+
+    @Benchmark
+    public TripSummary summarizeTrips() {
+        return TripSummary.of(tripList);
+    }
+}
@@ -0,0 +1,94 @@
+package com.routeservice.service.impl;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.TripDTO;
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic routes, stops and trips shaped like production data. A fixed seed keeps every fork
+ * and every run on the same dataset.
+ */
+final class SearchDatasets {
+
+    static final String ORIGIN = "PUSAD";
+    static final String DESTINATION = "PUNE";
+
+    private static final LocalDateTime FIRST_DEPARTURE = LocalDateTime.of(2025, 1, 15, 5, 0);
+
+    private SearchDatasets() {
+    }
+
+    static Route route(String routeId, int stopCount) {
+        Route route = Route.builder()
+                .routeId(routeId)
+                .routeName(ORIGIN + "-" + DESTINATION + " Express " + routeId)
+                .originCity(ORIGIN)
+                .destinationCity(DESTINATION)
+                .totalDistance(new BigDecimal("612.50"))
+                .estimatedDuration(new BigDecimal("11.25"))
+                .routeDescription("Overnight service via Aurangabad")
+                .isActive(true)
+                .updatedAt(FIRST_DEPARTURE)
+                .build();
+
+        List<RouteStop> stops = new ArrayList<>(stopCount);
+        for (int i = 1; i <= stopCount; i++) {
+            stops.add(RouteStop.builder()
+                    .stopId(routeId + "-S" + i)
+                    .route(route)
+                    .cityName("CITY-" + i)
+                    .stopSequence(i)
+                    .distanceFromOrigin(BigDecimal.valueOf(i * 12L))
+                    .estimatedStopDuration(BigDecimal.TEN)
+                    .stopType(i % 3 == 0 ? "DROP" : "BOTH")
+                    .isActive(i % 10 != 0) // a few retired stops, filtered out of search responses
+                    .build());
+        }
+        route.setStops(stops);
+        return route;
+    }
+
+    static List<RouteDTO> routeDTOs(int routeCount, int stopCount) {
+        List<RouteDTO> routes = new ArrayList<>(routeCount);
+        for (int r = 0; r < routeCount; r++) {
+            routes.add(RouteMapper.toRouteDTO(route("R" + r, stopCount)));
+        }
+        return routes;
+    }
+
+    /**
+     * Trips spread round-robin over the given routes. Every tenth trip carries no route id, as
+     * bus-service sends for trips it cannot map, so it is matched by city pair instead.
+     */
+    static List<TripDTO> trips(List<RouteDTO> routes, int tripCount) {
+        Random random = new Random(42);
+        List<TripDTO> trips = new ArrayList<>(tripCount);
+        for (int t = 0; t < tripCount; t++) {
+            LocalDateTime departure = FIRST_DEPARTURE.plusMinutes(random.nextInt(20 * 60));
+            trips.add(TripDTO.builder()
+                    .tripId("T" + t)
+                    .routeId(t % 10 == 9 || routes.isEmpty() ? null : routes.get(t % routes.size()).getRouteId())
+                    .busId("B" + (t % 500))
+                    .busNumber("MH-29-" + (1000 + t % 9000))
+                    .operatorName("Operator " + (t % 40))
+                    .busType(t % 2 == 0 ? "SLEEPER" : "SEATER")
+                    .originCity(ORIGIN)
+                    .destinationCity(DESTINATION)
+                    .departureDateTime(departure)
+                    .arrivalDateTime(departure.plusHours(11))
+                    .baseFareAmount(BigDecimal.valueOf(20_000 + random.nextInt(180_000), 2))
+                    .availableSeats(random.nextInt(41))
+                    .totalSeats(40)
+                    .tripStatus("SCHEDULED")
+                    .build());
+        }
+        return trips;
+    }
+}
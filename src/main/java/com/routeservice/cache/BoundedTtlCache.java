@@ -0,0 +1,198 @@
+package com.routeservice.cache;
+
+import com.routeservice.dto.CacheStatsDTO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Small LRU cache with a per-entry time-to-live. Loads run outside the lock, and a value loaded
+ * while an invalidation happened is returned to its caller but not stored, so an invalidation can
+ * never be overwritten by data read before it.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long generation; // guarded by "this", bumped on every invalidation
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public BoundedTtlCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+
+        V value = loader.apply(key);
+
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Bulk variant of {@link #get}: the loader is called at most once, with all keys that are
+     * missing or expired, and must return a value for each of them.
+     */
+    public Map<K, V> getAll(Collection<? extends K> keys, Function<? super Set<K>, ? extends Map<K, V>> loader) {
+        Map<K, V> result = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        long loadGeneration;
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (K key : keys) {
+                if (result.containsKey(key) || missing.contains(key)) {
+                    continue;
+                }
+                Entry<V> entry = entries.get(key);
+                if (entry != null) {
+                    if (now - entry.loadedAt < ttlNanos) {
+                        hits.increment();
+                        result.put(key, entry.value);
+                        continue;
+                    }
+                    entries.remove(key);
+                    expirations.increment();
+                }
+                misses.increment();
+                missing.add(key);
+            }
+            loadGeneration = generation;
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<K, V> loaded = loader.apply(missing);
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (K key : missing) {
+                V value = loaded.get(key);
+                if (value == null) {
+                    continue;
+                }
+                result.put(key, value);
+                if (loadGeneration == generation) {
+                    entries.put(key, new Entry<>(value, now));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached value, or {@code null} when the key is missing or expired.
+     */
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits.increment();
+                return entry.value;
+            }
+            entries.remove(key);
+            expirations.increment();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    public synchronized void invalidateIf(Predicate<? super K> predicate) {
+        generation++;
+        entries.keySet().removeIf(key -> {
+            if (predicate.test(key)) {
+                invalidations.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public CacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        return CacheStatsDTO.builder()
+                .name(name)
+                .size(size())
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(requests > 0 ? (double) hitCount / requests : 0.0)
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .invalidations(invalidations.sum())
+                .build();
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
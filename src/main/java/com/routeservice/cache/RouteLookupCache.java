@@ -0,0 +1,61 @@
+package com.routeservice.cache;
+
+import com.routeservice.dto.CacheStatsDTO;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of route lookups by (origin, destination, activeOnly). Entries are dropped
+ * for exactly the city pair of a route once a change to it (or to one of its stops) commits.
+ */
+@Component
+@Slf4j
+public class RouteLookupCache {
+
+    private final BoundedTtlCache<RouteLookupKey, List<RouteDTO>> cache;
+
+    public RouteLookupCache(@Value("${route.cache.lookup.max-size:10000}") int maxSize,
+                            @Value("${route.cache.lookup.ttl:10m}") Duration ttl) {
+        this.cache = new BoundedTtlCache<>("route-lookup", maxSize, ttl);
+    }
+
+    public List<RouteDTO> get(RouteLookupKey key, Function<RouteLookupKey, List<RouteDTO>> loader) {
+        return cache.get(key, loader);
+    }
+
+    public Map<RouteLookupKey, List<RouteDTO>> getAll(Collection<RouteLookupKey> keys,
+                                                     Function<Set<RouteLookupKey>, Map<RouteLookupKey, List<RouteDTO>>> loader) {
+        return cache.getAll(keys, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        RouteLookupKey active = RouteLookupKey.of(event.getOriginCity(), event.getDestinationCity(), true);
+        RouteLookupKey any = RouteLookupKey.of(event.getOriginCity(), event.getDestinationCity(), false);
+        cache.invalidate(active);
+        cache.invalidate(any);
+        log.debug("Invalidated route lookups for {} -> {} ({})",
+                active.getOriginCity(), active.getDestinationCity(), event.getChangeType());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoutesChanged(RouteBatchChangedEvent event) {
+        event.getChanges().forEach(this::onRouteChanged);
+    }
+
+    public CacheStatsDTO stats() {
+        return cache.stats();
+    }
+}
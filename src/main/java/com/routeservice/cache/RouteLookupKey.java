@@ -0,0 +1,15 @@
+package com.routeservice.cache;
+
+import com.routeservice.util.CityNames;
+import lombok.Value;
+
+@Value
+public class RouteLookupKey {
+    String originCity;
+    String destinationCity;
+    boolean activeOnly;
+
+    public static RouteLookupKey of(String originCity, String destinationCity, boolean activeOnly) {
+        return new RouteLookupKey(CityNames.normalize(originCity), CityNames.normalize(destinationCity), activeOnly);
+    }
+}
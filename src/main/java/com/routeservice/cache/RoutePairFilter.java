@@ -0,0 +1,224 @@
+package com.routeservice.cache;
+
+import com.routeservice.dto.PairFilterStatsDTO;
+import com.routeservice.dto.RouteChangeBatchDTO;
+import com.routeservice.dto.RouteChangeDTO;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.repository.projection.RouteKeyView;
+import com.routeservice.service.RouteChangeService;
+import com.routeservice.util.CityNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter of the (origin, destination) pairs of all routes, active or not. A negative answer
+ * is definite, so existence checks for unknown pairs skip the database; a positive answer only
+ * means the caller has to look.
+ *
+ * <p>Pairs created on this node are added as soon as the create commits. Routes created or deleted
+ * through other nodes are read from the change log (see RouteChangeService) every
+ * {@code route.snapshot.refresh-interval}, like RouteSnapshotIndex does, so a pair created
+ * elsewhere can be answered "no" for up to that long. Duplicate checks must not depend on the
+ * filter for that reason. Bloom filters cannot forget, so deletions are only counted, and the
+ * filter is rebuilt from the database once too many deleted pairs (or more pairs than it was sized
+ * for) have accumulated, or when the log has been compacted past the filter. Until the startup
+ * load finishes every check answers "maybe".
+ */
+@Component
+@Slf4j
+public class RoutePairFilter {
+
+    private static final double MAX_REMOVED_FRACTION = 0.25;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RouteChangeService routeChangeService;
+
+    private final long configuredExpectedPairs;
+    private final double fpp;
+
+    private volatile BloomFilter filter; // null until loaded
+
+    // Guarded by "this"
+    private long pairs;
+    private long removedPairs;
+    private long sequence; // change log position the filter includes every change up to
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder definiteNegatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public RoutePairFilter(@Value("${route.pair-filter.expected-pairs:100000}") long expectedPairs,
+                           @Value("${route.pair-filter.fpp:0.01}") double fpp) {
+        this.configuredExpectedPairs = expectedPairs;
+        this.fpp = fpp;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadAll() {
+        try {
+            rebuild();
+            log.info("Route pair filter loaded with {} pairs ({} KiB, {} hash functions)",
+                    pairs, filter.memoryBytes() / 1024, filter.hashCount());
+        } catch (Exception e) {
+            log.error("Failed to load route pair filter: {}", e.getMessage());
+        }
+    }
+
+    public boolean mightContain(String originCity, String destinationCity) {
+        checks.increment();
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(pairKey(originCity, destinationCity))) {
+            definiteNegatives.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Called when a possible hit turned out not to exist, to report the observed rate
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    // Creates on this node, so they are found right away; deletions are counted from the log
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRouteChanged(RouteChangedEvent event) {
+        if (event.getChangeType() == RouteChangeType.ROUTE_CREATED && add(event.getOriginCity(), event.getDestinationCity())) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRoutesChanged(RouteBatchChangedEvent event) {
+        boolean rebuildNeeded = false;
+        for (RouteChangedEvent change : event.getChanges()) {
+            if (change.getChangeType() == RouteChangeType.ROUTE_CREATED) {
+                rebuildNeeded |= add(change.getOriginCity(), change.getDestinationCity());
+            }
+        }
+        if (rebuildNeeded) {
+            rebuild();
+        }
+    }
+
+    // Changes made through any node, this one included, read from the change log
+    @Scheduled(fixedDelayString = "${route.snapshot.refresh-interval:5s}",
+            initialDelayString = "${route.snapshot.refresh-interval:5s}")
+    public synchronized void checkForRemoteChanges() {
+        try {
+            if (filter == null) {
+                rebuild(); // the startup load failed
+                return;
+            }
+            boolean rebuildNeeded = false;
+            long since = sequence;
+            RouteChangeBatchDTO batch;
+            do {
+                batch = routeChangeService.getChanges(since, null);
+                if (Boolean.TRUE.equals(batch.getResyncRequired())) {
+                    rebuild();
+                    return;
+                }
+                for (RouteChangeDTO change : batch.getChanges()) {
+                    if (change.getRoute() != null) {
+                        rebuildNeeded |= add(change.getRoute().getOriginCity(), change.getRoute().getDestinationCity());
+                    } else if (change.getChangeType() == RouteChangeType.ROUTE_DELETED) {
+                        removedPairs++;
+                        rebuildNeeded |= removedPairs > pairs * MAX_REMOVED_FRACTION;
+                    }
+                }
+                since = batch.getNextSince();
+            } while (Boolean.TRUE.equals(batch.getHasMore()));
+            sequence = since;
+            if (rebuildNeeded) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh route pair filter from the change log: {}", e.getMessage());
+        }
+    }
+
+    public PairFilterStatsDTO stats() {
+        BloomFilter current = filter;
+        long pairCount;
+        long removedCount;
+        synchronized (this) {
+            pairCount = pairs;
+            removedCount = removedPairs;
+        }
+        long checkCount = checks.sum();
+        long negatives = definiteNegatives.sum();
+        long falsePositiveCount = falsePositives.sum();
+        long trueNegatives = negatives + falsePositiveCount;
+
+        return PairFilterStatsDTO.builder()
+                .name("route-pair-filter")
+                .ready(current != null)
+                .pairs(pairCount)
+                .removedPairs(removedCount)
+                .expectedPairs(current != null ? current.expectedInsertions() : null)
+                .configuredFpp(fpp)
+                .expectedFpp(current != null ? current.expectedFpp(pairCount) : null)
+                .bitCount(current != null ? current.bitCount() : null)
+                .hashFunctions(current != null ? current.hashCount() : null)
+                .memoryBytes(current != null ? current.memoryBytes() : null)
+                .checks(checkCount)
+                .definiteNegatives(negatives)
+                .possibleHits(checkCount - negatives)
+                .falsePositives(falsePositiveCount)
+                .observedFpp(trueNegatives > 0 ? (double) falsePositiveCount / trueNegatives : 0.0)
+                .rebuilds(rebuilds.sum())
+                .build();
+    }
+
+    // Returns true when the filter should be rebuilt from the database. A pair seen before (through
+    // this node's event and again in the log) is not counted twice.
+    private boolean add(String originCity, String destinationCity) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return false; // the startup load will read the committed change
+        }
+        String key = pairKey(originCity, destinationCity);
+        if (current.mightContain(key)) {
+            return false;
+        }
+        current.put(key);
+        pairs++;
+        return pairs > current.expectedInsertions();
+    }
+
+    private void rebuild() {
+        // Sequence first: the keys read afterwards include at least every change up to it
+        long latest = routeChangeService.getLatestSequence();
+        List<RouteKeyView> keys = routeRepository.findAllRouteKeys();
+        // Leave headroom so routine creates do not trigger a rebuild soon after this one
+        BloomFilter rebuilt = new BloomFilter(Math.max(configuredExpectedPairs, keys.size() * 2L), fpp);
+        for (RouteKeyView key : keys) {
+            rebuilt.put(pairKey(key.getOriginCity(), key.getDestinationCity()));
+        }
+        filter = rebuilt;
+        pairs = keys.size();
+        removedPairs = 0;
+        sequence = latest;
+        rebuilds.increment();
+    }
+
+    private static String pairKey(String originCity, String destinationCity) {
+        return CityNames.normalize(originCity) + '\u0000' + CityNames.normalize(destinationCity);
+    }
+}
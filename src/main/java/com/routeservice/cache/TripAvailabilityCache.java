@@ -0,0 +1,182 @@
+package com.routeservice.cache;
+
+import com.routeservice.dto.CacheStatsDTO;
+import com.routeservice.dto.TripDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of bus-service trip availability per (origin, destination, date).
+ *
+ * <ul>
+ *   <li>Fresh entries are returned directly.</li>
+ *   <li>Stale entries (past the fresh TTL but within the stale window) are returned directly
+ *       and refreshed once in the background.</li>
+ *   <li>On a miss, concurrent callers for the same key share a single upstream call.</li>
+ * </ul>
+ * Failed loads are never cached; the exception is rethrown to every caller waiting on that load.
+ * Beyond max-size the least recently used entry is dropped.
+ */
+@Component
+@Slf4j
+public class TripAvailabilityCache {
+
+    private final long freshNanos;
+    private final long staleNanos;
+    private final int maxSize;
+    private final TaskExecutor refreshExecutor;
+
+    private final LinkedHashMap<TripCacheKey, Entry> entries; // guarded by itself, in access order
+    private final Map<TripCacheKey, CompletableFuture<List<TripDTO>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public TripAvailabilityCache(@Value("${route.cache.trips.fresh-ttl:30s}") Duration freshTtl,
+                                 @Value("${route.cache.trips.stale-ttl:2m}") Duration staleTtl,
+                                 @Value("${route.cache.trips.max-size:5000}") int maxSize,
+                                 @Qualifier("tripRefreshExecutor") TaskExecutor refreshExecutor) {
+        this.freshNanos = freshTtl.toNanos();
+        this.staleNanos = freshTtl.plus(staleTtl).toNanos();
+        this.maxSize = maxSize;
+        this.refreshExecutor = refreshExecutor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TripCacheKey, Entry> eldest) {
+                if (size() <= TripAvailabilityCache.this.maxSize) {
+                    return false;
+                }
+                if (System.nanoTime() - eldest.getValue().loadedAt >= staleNanos) {
+                    expirations.increment();
+                } else {
+                    evictions.increment();
+                }
+                return true;
+            }
+        };
+    }
+
+    public List<TripDTO> get(TripCacheKey key, Supplier<List<TripDTO>> loader) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt >= staleNanos) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            if (System.nanoTime() - entry.loadedAt < freshNanos) {
+                hits.increment();
+                return entry.trips;
+            }
+            staleHits.increment();
+            refreshInBackground(key, loader);
+            return entry.trips;
+        }
+
+        misses.increment();
+        CompletableFuture<List<TripDTO>> load = new CompletableFuture<>();
+        CompletableFuture<List<TripDTO>> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        return load(key, loader, load);
+    }
+
+    private void refreshInBackground(TripCacheKey key, Supplier<List<TripDTO>> loader) {
+        CompletableFuture<List<TripDTO>> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, refresh) != null) {
+            return; // someone is already loading this key
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, loader, refresh);
+                } catch (RuntimeException e) {
+                    log.warn("Background refresh of trips for {} failed: {}", key, e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.debug("Skipping background refresh of trips for {}: {}", key, e.getMessage());
+            inFlight.remove(key, refresh);
+            refresh.completeExceptionally(e);
+        }
+    }
+
+    private List<TripDTO> load(TripCacheKey key, Supplier<List<TripDTO>> loader, CompletableFuture<List<TripDTO>> load) {
+        try {
+            List<TripDTO> trips = List.copyOf(loader.get());
+            synchronized (entries) {
+                // Past maxSize the least recently used entry goes
+                entries.put(key, new Entry(trips, System.nanoTime()));
+            }
+            load.complete(trips);
+            return trips;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private static List<TripDTO> await(CompletableFuture<List<TripDTO>> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        long hitCount = hits.sum() + staleHits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        return CacheStatsDTO.builder()
+                .name("trip-availability")
+                .size(size())
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .staleHits(staleHits.sum())
+                .misses(missCount)
+                .coalescedLoads(coalesced.sum())
+                .hitRate(requests > 0 ? (double) hitCount / requests : 0.0)
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .invalidations(0L)
+                .build();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(List<TripDTO> trips, long loadedAt) {
+    }
+}
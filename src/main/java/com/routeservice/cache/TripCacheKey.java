@@ -0,0 +1,17 @@
+package com.routeservice.cache;
+
+import com.routeservice.util.CityNames;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+public class TripCacheKey {
+    String originCity;
+    String destinationCity;
+    LocalDate departureDate;
+
+    public static TripCacheKey of(String originCity, String destinationCity, LocalDate departureDate) {
+        return new TripCacheKey(CityNames.normalize(originCity), CityNames.normalize(destinationCity), departureDate);
+    }
+}
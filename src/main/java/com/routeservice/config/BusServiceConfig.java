@@ -0,0 +1,85 @@
+package com.routeservice.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.routeservice.feign.WireBytesInterceptor;
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.time.Duration;
+
+@Configuration
+@Slf4j
+public class BusServiceConfig {
+
+    // Opens when too many of the recent calls failed or were slow. After open-duration a few
+    // probe calls are let through (half-open); their outcome closes or re-opens the breaker.
+    @Bean
+    public CircuitBreaker busServiceCircuitBreaker(
+            @Value("${bus-service.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${bus-service.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${bus-service.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${bus-service.circuit-breaker.slow-call-duration:1500ms}") Duration slowCallDuration,
+            @Value("${bus-service.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+            @Value("${bus-service.circuit-breaker.open-duration:10s}") Duration openDuration,
+            @Value("${bus-service.circuit-breaker.half-open-calls:5}") int halfOpenCalls,
+            MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .waitDurationInOpenState(openDuration)
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                // A 4xx means our request was wrong, not that bus-service is unhealthy
+                .ignoreExceptions(FeignException.FeignClientException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        CircuitBreaker circuitBreaker = registry.circuitBreaker("bus-service");
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Bus-service circuit breaker {}", event.getStateTransition()));
+        return circuitBreaker;
+    }
+
+    // Lets Feign decode application/x-jackson-smile answers (requested via the Accept header of the
+    // bus-service client); built from Boot's builder so dates and modules match the JSON mapper
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer wireBytesCustomizer(MeterRegistry meterRegistry) {
+        return builder -> builder.addResponseInterceptorFirst(new WireBytesInterceptor(meterRegistry));
+    }
+
+    // Leased, available and pending connections of the pooled Feign client; pending > 0 means the pool is saturated
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> hc5ConnectionManager) {
+        return registry -> hc5ConnectionManager.ifAvailable(connectionManager -> {
+            if (connectionManager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.routeservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Declaring any Executor bean switches off Boot's default one, which Spring MVC uses for
+    // async requests and streaming responses, so it is recreated here from the spring.task.execution.* settings
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // Background refreshes of stale trip cache entries; when saturated a refresh is simply
+    // skipped and the stale value keeps being served until the next request retries it
+    @Bean
+    public ThreadPoolTaskExecutor tripRefreshExecutor(
+            @Value("${route.cache.trips.refresh-threads:4}") int threads,
+            @Value("${route.cache.trips.refresh-queue:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("trip-refresh-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Runs the independent stages of a search (route lookup, bus-service call) concurrently.
+    // Bounded on both threads and queue; when full, new searches are rejected instead of queuing
+    // without limit, and the controller answers 503.
+    @Bean
+    public ThreadPoolTaskExecutor searchExecutor(
+            @Value("${route.search.executor.threads:32}") int threads,
+            @Value("${route.search.executor.queue:500}") int queueCapacity,
+            TaskDecorator queryCountTaskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("search-");
+        executor.setTaskDecorator(queryCountTaskDecorator);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Runs hedged bus-service calls (the first attempt and the hedge). No queue: when all threads
+    // are busy the call is made on the caller's thread without hedging.
+    @Bean
+    public ThreadPoolTaskExecutor busServiceHedgeExecutor(
+            @Value("${bus-service.hedge.threads:64}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("bus-hedge-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
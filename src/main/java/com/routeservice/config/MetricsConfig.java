@@ -0,0 +1,60 @@
+package com.routeservice.config;
+
+import com.routeservice.metrics.QueryCountInterceptor;
+import com.routeservice.metrics.QueryCounter;
+import feign.micrometer.DefaultFeignObservationConvention;
+import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Makes @Timed work on Spring beans (RouteServiceImpl is timed at class level)
+    @Bean
+    public TimedAspect timedAspect() {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Feign calls get their own meter name: its tag keys differ from the RestClient/RestTemplate
+    // http.client.requests ones, and Prometheus only accepts one tag set per meter name
+    @Bean
+    public MicrometerObservationCapability micrometerObservationCapability(ObservationRegistry observationRegistry) {
+        return new MicrometerObservationCapability(observationRegistry, new DefaultFeignObservationConvention() {
+            @Override
+            public String getName() {
+                return "feign.client.requests";
+            }
+        });
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    // Picked up by Boot's executor builder as well, so async MVC work is counted with its request
+    @Bean
+    public TaskDecorator queryCountTaskDecorator() {
+        return QueryCounter.taskDecorator();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryCountInterceptor(meterRegistry));
+    }
+}
@@ -0,0 +1,77 @@
+package com.routeservice.config;
+
+import com.routeservice.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, active only when {@code route.datasource.replicas.urls} is set. Writes and
+ * regular transactions use the primary from {@code spring.datasource.*}; read-only transactions
+ * ({@code @Transactional(readOnly = true)}) are served by {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "route.datasource.replicas.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${route.datasource.replicas.urls}") List<String> urls,
+            @Value("${route.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${route.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${route.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${route.datasource.replicas.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${route.datasource.replicas.max-lag:5s}") Duration maxLag,
+            @Value("${route.datasource.replicas.read-after-write:10s}") Duration readAfterWrite,
+            @Value("${route.datasource.replicas.lag-query:}") String lagQuery,
+            @Value("${route.datasource.replicas.check-interval:5s}") Duration checkInterval) {
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // A replica that is down at startup must not stop the application; it joins once it answers
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag, readAfterWrite, lagQuery,
+                checkInterval, meterRegistry);
+    }
+
+    // The physical connection is fetched at the first statement, after the transaction has marked
+    // it read-only, so the proxy can still pick the replica side for read-only transactions
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -1,24 +1,62 @@
 package com.routeservice.controller;
 
 import com.routeservice.dto.*;
+import com.routeservice.service.BulkImportService;
+import com.routeservice.service.RouteChangeService;
+import com.routeservice.service.RouteExportService;
 import com.routeservice.service.RouteService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/routes")
 @Slf4j
 public class RouteController {
 
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
     @Autowired
     private RouteService routeService;
 
+    @Autowired
+    private RouteExportService routeExportService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private RouteChangeService routeChangeService;
+
+    @Value("${route.export.timeout:30m}")
+    private Duration exportTimeout;
+
     // Route Management APIs
 
     @PostMapping
@@ -28,9 +66,19 @@ public class RouteController {
         return ResponseEntity.ok(createdRoute);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkImportResultDTO> importRoutes(InputStream routes) throws IOException {
+        log.info("POST /api/routes/bulk - Importing routes");
+        BulkImportResultDTO result = bulkImportService.importRoutes(routes);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{routeId}")
-    public ResponseEntity<RouteDTO> getRouteById(@PathVariable String routeId) {
+    public ResponseEntity<RouteDTO> getRouteById(@PathVariable String routeId, ServletWebRequest request) {
         log.info("GET /api/routes/{} - Fetching route by ID", routeId);
+        if (notModified(request, routeService.findRouteVersion(routeId))) {
+            return null;
+        }
         RouteDTO route = routeService.getRouteById(routeId);
         return ResponseEntity.ok(route);
     }
@@ -58,6 +106,68 @@ public class RouteController {
         return ResponseEntity.ok(routes);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<RoutePageDTO> getRoutesPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) Boolean active) {
+        log.info("GET /api/routes/page?after={}&size={} - Fetching page of routes", after, size);
+        RoutePageDTO page = routeService.getRoutesPage(after, size, origin, destination, active);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/active/page")
+    public ResponseEntity<RoutePageDTO> getActiveRoutesPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination) {
+        log.info("GET /api/routes/active/page?after={}&size={} - Fetching page of active routes", after, size);
+        RoutePageDTO page = routeService.getRoutesPage(after, size, origin, destination, true);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRoutes(
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            ServletWebRequest request) {
+        log.info("GET /api/routes/export?after={} - Streaming route catalog", after);
+
+        // A full export can outlive the default async timeout; other async endpoints keep it
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true);
+                routeExportService.exportRoutes(after, gzipOut);
+                gzipOut.finish();
+            } else {
+                routeExportService.exportRoutes(after, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<RouteChangeBatchDTO> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /api/routes/changes?since={}&limit={} - Fetching route changes", since, limit);
+        RouteChangeBatchDTO changes = routeChangeService.getChanges(since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
     @PutMapping("/{routeId}")
     public ResponseEntity<RouteDTO> updateRoute(@PathVariable String routeId, @RequestBody RouteDTO routeDTO) {
         log.info("PUT /api/routes/{} - Updating route", routeId);
@@ -96,7 +206,7 @@ public class RouteController {
     }
 
     @GetMapping("/search/available")
-    public ResponseEntity<List<RouteSearchResponseDTO>> searchAvailableRoutes(
+    public CompletableFuture<ResponseEntity<List<RouteSearchResponseDTO>>> searchAvailableRoutes(
             @RequestParam String origin,
             @RequestParam String destination,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate travelDate) {
@@ -106,8 +216,90 @@ public class RouteController {
         // Use today's date if not provided
         LocalDate searchDate = travelDate != null ? travelDate : LocalDate.now();
 
-        List<RouteSearchResponseDTO> results = routeService.searchAvailableRoutes(origin, destination, searchDate);
-        return ResponseEntity.ok(results);
+        return routeService.searchAvailableRoutesAsync(origin, destination, searchDate)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> searchFailure(ex, origin, destination));
+    }
+
+    @PostMapping(value = "/search/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> searchRoutesBatch(@RequestBody List<RouteSearchRequestDTO> searchRequests) {
+        log.info("POST /api/routes/search/batch - {} searches", searchRequests.size());
+
+        List<CompletableFuture<BatchSearchResultDTO>> results;
+        try {
+            results = routeService.searchRoutesBatch(searchRequests);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected batch search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        // One JSON line per distinct search, written in completion order
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        for (CompletableFuture<BatchSearchResultDTO> result : results) {
+            result.thenAccept(line -> {
+                synchronized (emitter) {
+                    try {
+                        emitter.send(line, MediaType.APPLICATION_JSON);
+                        emitter.send("\n", MediaType.TEXT_PLAIN);
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("Batch search client went away: {}", e.getMessage());
+                    }
+                }
+            });
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, ex) -> emitter.complete());
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    @GetMapping("/search/fare-calendar")
+    public CompletableFuture<ResponseEntity<FareCalendarDTO>> getFareCalendar(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(defaultValue = "30") int days) {
+
+        log.info("📅 FARE CALENDAR: From {} to {} for {} days from {}", origin, destination, days, startDate);
+
+        LocalDate fromDate = startDate != null ? startDate : LocalDate.now();
+
+        return routeService.getFareCalendar(origin, destination, fromDate, days)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> searchFailure(ex, origin, destination));
+    }
+
+    private <T> ResponseEntity<T> searchFailure(Throwable ex, String origin, String destination) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException) {
+            log.error("Search from {} to {} timed out", origin, destination);
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        throw ex instanceof CompletionException completion ? completion : new CompletionException(cause);
+    }
+
+    @GetMapping("/search/journeys")
+    public ResponseEntity<List<JourneyDTO>> searchJourneys(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam(defaultValue = "2") int maxTransfers,
+            @RequestParam(defaultValue = "DISTANCE") JourneyMetric optimizeBy) {
+        log.info("GET /api/routes/search/journeys?origin={}&destination={}&maxTransfers={}&optimizeBy={} - Planning journeys",
+                origin, destination, maxTransfers, optimizeBy);
+        List<JourneyDTO> journeys = routeService.searchJourneys(origin, destination, maxTransfers, optimizeBy);
+        return ResponseEntity.ok(journeys);
+    }
+
+    @GetMapping("/cities/autocomplete")
+    public ResponseEntity<List<CitySuggestionDTO>> suggestCities(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        // Served from memory on every keystroke, so logged at debug level only
+        log.debug("GET /api/routes/cities/autocomplete?prefix={}&limit={}", prefix, limit);
+        return ResponseEntity.ok(routeService.suggestCities(prefix, limit));
     }
     // Route Stop Management APIs
 
@@ -119,8 +311,11 @@ public class RouteController {
     }
 
     @GetMapping("/{routeId}/stops")
-    public ResponseEntity<List<RouteStopDTO>> getStopsByRoute(@PathVariable String routeId) {
+    public ResponseEntity<List<RouteStopDTO>> getStopsByRoute(@PathVariable String routeId, ServletWebRequest request) {
         log.info("GET /api/routes/{}/stops - Fetching stops for route", routeId);
+        if (notModified(request, routeService.findRouteVersion(routeId))) {
+            return null;
+        }
         List<RouteStopDTO> stops = routeService.getStopsByRoute(routeId);
         return ResponseEntity.ok(stops);
     }
@@ -153,9 +348,94 @@ public class RouteController {
     @GetMapping("/details")
     public ResponseEntity<RouteDTO> getRouteDetails(
             @RequestParam String origin,
-            @RequestParam String destination) {
+            @RequestParam String destination,
+            ServletWebRequest request) {
         log.info("GET /api/routes/details?origin={}&destination={} - Getting route details", origin, destination);
+        if (notModified(request, routeService.findRouteDetailsVersion(origin, destination))) {
+            return null;
+        }
         RouteDTO route = routeService.getRouteDetails(origin, destination);
         return ResponseEntity.ok(route);
     }
+
+    // Conditional GET answered from the version lookup alone: when the client's copy is current the
+    // status is set to 304 here and the route is never loaded. Otherwise ETag and Last-Modified are
+    // set for the 200 response that follows.
+    // Accept-Encoding with q-values: "gzip;q=0" refuses gzip, "*" covers it when it is not listed
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+
+    private boolean notModified(ServletWebRequest request, Optional<RouteVersionDTO> version) {
+        if (version.isEmpty()) {
+            return false;
+        }
+        request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = version.get().getEtag() + representationSuffix(request.getHeader(HttpHeaders.ACCEPT));
+        if (version.get().getLastModified() == null) {
+            return request.checkNotModified(etag);
+        }
+        long lastModified = version.get().getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return request.checkNotModified(etag, lastModified);
+    }
+
+    // JSON and Smile bodies of the same version need different strong ETags
+    private static String representationSuffix(String accept) {
+        if (accept == null) {
+            return "";
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType type : accepted) {
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return "";
+                }
+                if (type.isCompatibleWith(SMILE)) {
+                    return "-smile";
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Negotiation rejects the request anyway
+        }
+        return "";
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        log.info("GET /api/routes/cache/stats - Fetching cache statistics");
+        return ResponseEntity.ok(routeService.getCacheStats());
+    }
+
+    @GetMapping("/cache/pair-filter")
+    public ResponseEntity<PairFilterStatsDTO> getPairFilterStats() {
+        log.info("GET /api/routes/cache/pair-filter - Fetching route pair filter statistics");
+        return ResponseEntity.ok(routeService.getPairFilterStats());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.routeservice.datasource;
+
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangedEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions. Hands out a connection of a healthy replica, round
+ * robin, and falls back to the primary when
+ *
+ * <ul>
+ *   <li>no replica is healthy: unreachable, or lagging more than {@code max-lag} at the last check;</li>
+ *   <li>a replica cannot hand out a connection (it is marked unhealthy until the next check passes);</li>
+ *   <li>a route change committed less than {@code read-after-write} ago, so a client reading
+ *       back its own write, and caches reloading after the change, see it.</li>
+ * </ul>
+ *
+ * Replica lag is measured by {@code lag-query}, which must return the lag in seconds (e.g. from a
+ * heartbeat table). Without it, MySQL's own {@code Seconds_Behind_Source} from {@code SHOW REPLICA STATUS}
+ * is used; a replica that cannot report it (replication stopped, not a replica, another database)
+ * never serves reads.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final HikariDataSource primary;
+    private static final String BUILT_IN_LAG_QUERY = "SHOW REPLICA STATUS";
+    private static final String BUILT_IN_LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final long readAfterWriteNanos;
+    private final String lagQuery;
+    private final ScheduledExecutorService healthChecks;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile long lastWriteAt = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                                    Duration readAfterWrite, String lagQuery, Duration checkInterval,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.readAfterWriteNanos = readAfterWrite.toNanos();
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+
+        this.replicaReads = Counter.builder("route.datasource.read.connections")
+                .description("Connections handed out for read-only transactions, by target")
+                .tag("target", "replica")
+                .register(meterRegistry);
+        this.primaryReads = Counter.builder("route.datasource.read.connections")
+                .description("Connections handed out for read-only transactions, by target")
+                .tag("target", "primary")
+                .register(meterRegistry);
+        Gauge.builder("route.datasource.replicas.healthy", this, ReplicaRoutingDataSource::healthyReplicas)
+                .description("Replicas currently eligible for reads")
+                .register(meterRegistry);
+
+        checkReplicas();
+        this.healthChecks = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas,
+                checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (System.nanoTime() - lastWriteAt >= readAfterWriteNanos) {
+            int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replicaReads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.markUnhealthy(e.getMessage());
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Stands in for the primary, whose pool cannot switch users, so only its own credentials are accepted
+        if (!Objects.equals(username, primary.getUsername()) || !Objects.equals(password, primary.getPassword())) {
+            throw new SQLException("Read connections only use the configured datasource credentials");
+        }
+        return getConnection();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        lastWriteAt = System.nanoTime();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoutesChanged(RouteBatchChangedEvent event) {
+        lastWriteAt = System.nanoTime();
+    }
+
+    /**
+     * Re-evaluates every replica; runs every {@code check-interval}.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Long lag = lagSeconds(connection);
+                if (lag == null) {
+                    replica.markUnhealthy("replication lag unknown");
+                } else if (lag > maxLagSeconds) {
+                    replica.markUnhealthy("lagging " + lag + "s behind the primary");
+                } else {
+                    replica.markHealthy();
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.markUnhealthy(e.getMessage());
+            }
+        }
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    private Long lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery != null ? lagQuery : BUILT_IN_LAG_QUERY)) {
+            if (!result.next()) {
+                return null;
+            }
+            long lag = lagQuery != null ? result.getLong(1) : result.getLong(BUILT_IN_LAG_COLUMN);
+            return result.wasNull() ? null : lag;
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecks.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void markHealthy() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Read replica {} is serving reads", dataSource.getPoolName());
+            }
+        }
+
+        void markUnhealthy(String reason) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Read replica {} taken out of rotation, reads go to the primary: {}",
+                        dataSource.getPoolName(), reason);
+            } else {
+                log.debug("Read replica {} still unavailable: {}", dataSource.getPoolName(), reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.routeservice.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchSearchResultDTO {
+    private String originCity;
+    private String destinationCity;
+    private LocalDate travelDate;
+    private List<Integer> requestIndexes; // positions in the request list answered by this result
+    private List<RouteSearchResponseDTO> routes;
+    private String error;                 // set instead of routes when this pair failed
+}
@@ -0,0 +1,13 @@
+package com.routeservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportErrorDTO {
+    private Integer index; // position of the record in the request, starting at 0
+    private String routeId;
+    private String message;
+}
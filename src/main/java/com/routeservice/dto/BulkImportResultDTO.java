@@ -0,0 +1,18 @@
+package com.routeservice.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResultDTO {
+    private Integer received;
+    private Integer imported;
+    private Integer failed;
+    private Integer stopsImported;
+    private Long elapsedMillis;
+    private Double routesPerSecond;
+    private List<BulkImportErrorDTO> errors;
+}
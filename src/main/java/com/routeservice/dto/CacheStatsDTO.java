@@ -0,0 +1,21 @@
+package com.routeservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private String name;
+    private Integer size;
+    private Integer maxSize;
+    private Long hits;
+    private Long staleHits;       // hits served from a stale entry while it was being refreshed
+    private Long misses;
+    private Long coalescedLoads;  // misses that waited on another caller's load instead of loading
+    private Double hitRate;
+    private Long evictions;    // removed to stay within maxSize
+    private Long expirations;  // removed because the TTL elapsed
+    private Long invalidations; // removed by a write
+}
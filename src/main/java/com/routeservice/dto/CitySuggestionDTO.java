@@ -0,0 +1,12 @@
+package com.routeservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CitySuggestionDTO {
+    private String cityName;
+    private Integer routeCount; // active routes starting, ending or stopping in the city
+}
@@ -0,0 +1,16 @@
+package com.routeservice.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FareCalendarDTO {
+    private String originCity;
+    private String destinationCity;
+    private Integer routeCount;
+    private Boolean partial; // true when some days were still loading at the deadline
+    private List<FareCalendarDayDTO> days;
+}
@@ -0,0 +1,15 @@
+package com.routeservice.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FareCalendarDayDTO {
+    private LocalDate date;
+    private Double lowestFare;          // null when there are no trips with a fare that day
+    private Integer totalAvailableSeats;
+    private Integer tripCount;          // null when the day could not be loaded in time
+}
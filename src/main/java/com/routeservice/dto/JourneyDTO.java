@@ -0,0 +1,17 @@
+package com.routeservice.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JourneyDTO {
+    private String originCity;
+    private String destinationCity;
+    private Integer transfers;
+    private Double totalDistance;
+    private Double totalDuration;
+    private List<JourneyLegDTO> legs;
+}
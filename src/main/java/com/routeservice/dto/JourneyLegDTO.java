@@ -0,0 +1,16 @@
+package com.routeservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JourneyLegDTO {
+    private String routeId;
+    private String routeName;
+    private String fromCity;
+    private String toCity;
+    private Double distance;  // in kilometers
+    private Double duration;  // in hours
+}
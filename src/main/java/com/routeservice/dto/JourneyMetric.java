@@ -0,0 +1,6 @@
+package com.routeservice.dto;
+
+public enum JourneyMetric {
+    DISTANCE,
+    DURATION
+}
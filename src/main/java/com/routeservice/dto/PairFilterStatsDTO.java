@@ -0,0 +1,26 @@
+package com.routeservice.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PairFilterStatsDTO {
+    private String name;
+    private Boolean ready;            // false until the startup load has finished; every check falls through until then
+    private Long pairs;               // distinct origin/destination pairs added since the last rebuild
+    private Long removedPairs;        // pairs deleted since the last rebuild; their bits stay set until the next one
+    private Long expectedPairs;
+    private Double configuredFpp;
+    private Double expectedFpp;       // theoretical false-positive rate at the current fill
+    private Long bitCount;
+    private Integer hashFunctions;
+    private Long memoryBytes;
+    private Long checks;
+    private Long definiteNegatives;   // answered without touching the database
+    private Long possibleHits;
+    private Long falsePositives;      // possible hits the database lookup then did not find
+    private Double observedFpp;
+    private Long rebuilds;
+}
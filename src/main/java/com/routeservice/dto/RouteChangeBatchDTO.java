@@ -0,0 +1,16 @@
+package com.routeservice.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteChangeBatchDTO {
+    private List<RouteChangeDTO> changes;
+    private Long nextSince; // pass as "since" to fetch the next batch
+    private Boolean hasMore;
+    private Long latestSequence; // newest sequence in the log when the batch was read
+    private Boolean resyncRequired; // changes before "since" were compacted away; re-pull the full catalog first
+}
@@ -0,0 +1,18 @@
+package com.routeservice.dto;
+
+import com.routeservice.event.RouteChangeType;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Latest change to one route within a change feed batch, with the route as it is now
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteChangeDTO {
+    private Long sequence;
+    private RouteChangeType changeType;
+    private String routeId;
+    private LocalDateTime changedAt;
+    private RouteDTO route; // with its stops; null when the route has been deleted
+}
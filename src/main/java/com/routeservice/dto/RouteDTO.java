@@ -21,4 +21,5 @@ public class RouteDTO {
     private List<RouteStopDTO> stops;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
\ No newline at end of file
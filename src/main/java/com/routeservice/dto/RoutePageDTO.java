@@ -0,0 +1,15 @@
+package com.routeservice.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoutePageDTO {
+    private List<RouteDTO> routes;
+    private Integer size;
+    private Boolean hasMore;
+    private String nextCursor; // pass as "after" to fetch the next page; null on the last page
+}
@@ -19,6 +19,9 @@ public class RouteSearchResponseDTO {
     // ✅ Bus Service Data via Feign Client
     private Integer availableTripsCount;
     private List<TripDTO> availableTrips; // Uses TripDTO
+    // True when availableTrips includes trips bus-service did not tie to a route; every route
+    // serving the same city pair lists them too (see TripIndex)
+    private Boolean pairLevelTrips;
 
     // ✅ Additional combined data
     private Double lowestFare;
@@ -0,0 +1,14 @@
+package com.routeservice.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Validators of a route representation, read without loading the route
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteVersionDTO {
+    private String etag; // opaque, changes whenever the representation may have changed
+    private LocalDateTime lastModified; // null when a modification time cannot express every change
+}
@@ -10,6 +10,10 @@ import java.time.LocalDateTime;
 @Builder
 public class TripDTO {
     private String tripId;
+    // Optional, expected from bus-service once it knows our route IDs. Older bus-service versions do not
+    // send it: their trips are only matched by city pair, so whenever more than one route serves that
+    // pair they are listed on each of those routes, flagged as pair-level trips (see TripIndex).
+    private String routeId;
     private String busId;
     private String busNumber;
     private String operatorName;
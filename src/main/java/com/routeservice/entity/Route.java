@@ -1,13 +1,19 @@
 package com.routeservice.entity;
 
+import com.routeservice.util.CityNames;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "route")
+@Table(name = "route", indexes = {
+        @Index(name = "idx_route_cities_active", columnList = "origin_city_key, destination_city_key, is_active")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +33,10 @@ public class Route {
     @Column(nullable = false)
     private String destinationCity;
 
+    // Lookup keys (CityNames.normalize of the columns above), kept in sync on every write
+    private String originCityKey;
+    private String destinationCityKey;
+
     private BigDecimal totalDistance;  // in kilometers
     private BigDecimal estimatedDuration; // in hours
     private String routeDescription;
@@ -35,6 +45,7 @@ public class Route {
     private Boolean isActive = true;
 
     @OneToMany(mappedBy = "route", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
     private List<RouteStop> stops;
 
     @Builder.Default
@@ -42,8 +53,32 @@ public class Route {
 
     private LocalDateTime updatedAt;
 
+    // Incremented in SQL by every route update; stop changes touch the route so they bump it too.
+    // Drives the ETags of the route's GET endpoints only: no optimistic locking, concurrent writers
+    // all succeed and the last one wins, each with a version of its own. Defaults to 0 for rows
+    // written outside JPA.
+    @Generated(event = EventType.UPDATE, sql = "version + 1")
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    @PrePersist
+    public void prePersist() {
+        // The DTO mapping passes the client's createdAt through, which replaces the builder default
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        updateCityKeys();
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        updateCityKeys();
+    }
+
+    private void updateCityKeys() {
+        this.originCityKey = CityNames.normalize(originCity);
+        this.destinationCityKey = CityNames.normalize(destinationCity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.routeservice.entity;
+
+import com.routeservice.event.RouteChangeType;
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only route change log behind {@code GET /api/routes/changes}. Written in
+ * the transaction of the change itself; the sequence is handed out by {@link RouteChangeSequence}.
+ */
+@Entity
+@Table(name = "route_change", indexes = {
+        @Index(name = "idx_route_change_route", columnList = "route_id, sequence")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class RouteChange {
+    @Id
+    private Long sequence;
+
+    @Column(nullable = false)
+    private String routeId;
+
+    private String stopId; // only set for stop changes
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RouteChangeType changeType;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,30 @@
+package com.routeservice.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+
+/**
+ * Single-row counter of the route change log. Writers lock the row to take their sequences and
+ * hold the lock until they commit, so change log entries become visible in sequence order and a
+ * reader that has seen sequence n can never later find a smaller one.
+ */
+@Entity
+@Table(name = "route_change_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class RouteChangeSequence {
+    public static final String ROUTES = "routes";
+
+    @Id
+    private String name;
+
+    private long lastSequence;
+
+    // Highest sequence whose entry compaction removed without a newer entry for the same route
+    // (purged deletes); readers that have not got past it have to resync from a full export
+    private long purgedThrough;
+}
@@ -1,11 +1,15 @@
 package com.routeservice.entity;
 
+import com.routeservice.util.CityNames;
 import lombok.*;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "route_stop")
+@Table(name = "route_stop", indexes = {
+        @Index(name = "idx_route_stop_route_active_seq", columnList = "route_id, is_active, stop_sequence"),
+        @Index(name = "idx_route_stop_city", columnList = "city_name_key")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,11 +22,14 @@ public class RouteStop {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "route_id", nullable = false)
+    @ToString.Exclude
     private Route route;
 
     @Column(nullable = false)
     private String cityName;
 
+    private String cityNameKey; // CityNames.normalize(cityName), kept in sync on every write
+
     @Column(nullable = false)
     private Integer stopSequence;  // 1, 2, 3, etc.
 
@@ -32,4 +39,10 @@ public class RouteStop {
 
     @Builder.Default
     private Boolean isActive = true;
+
+    @PrePersist
+    @PreUpdate
+    public void updateCityNameKey() {
+        this.cityNameKey = CityNames.normalize(cityName);
+    }
 }
\ No newline at end of file
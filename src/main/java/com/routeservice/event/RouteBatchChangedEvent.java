@@ -0,0 +1,14 @@
+package com.routeservice.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published once per chunk by bulk operations, inside the chunk's transaction, so listeners can
+ * handle many routes in one pass instead of reacting to thousands of individual RouteChangedEvents.
+ */
+@Value
+public class RouteBatchChangedEvent {
+    List<RouteChangedEvent> changes;
+}
@@ -0,0 +1,16 @@
+package com.routeservice.event;
+
+public enum RouteChangeType {
+    ROUTE_CREATED,
+    ROUTE_UPDATED,
+    ROUTE_DELETED,
+    ROUTE_ACTIVATED,
+    ROUTE_DEACTIVATED,
+    STOP_ADDED,
+    STOP_UPDATED,
+    STOP_REMOVED;
+
+    public boolean isStopChange() {
+        return this == STOP_ADDED || this == STOP_UPDATED || this == STOP_REMOVED;
+    }
+}
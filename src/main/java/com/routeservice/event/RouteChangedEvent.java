@@ -0,0 +1,18 @@
+package com.routeservice.event;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Published by RouteServiceImpl after every route or stop mutation so that in-memory
+ * structures built from the catalog can update themselves without polling MySQL.
+ */
+@Value
+@Builder
+public class RouteChangedEvent {
+    RouteChangeType changeType;
+    String routeId;
+    String stopId; // only set for stop changes
+    String originCity;
+    String destinationCity;
+}
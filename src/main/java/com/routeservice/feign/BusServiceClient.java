@@ -0,0 +1,208 @@
+package com.routeservice.feign;
+
+import com.routeservice.cache.BoundedTtlCache;
+import com.routeservice.dto.CacheStatsDTO;
+import com.routeservice.dto.TripDTO;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bus-service calls made by searches, protected against a slow or failing bus-service.
+ *
+ * <ul>
+ *   <li>Every attempt goes through the bus-service circuit breaker; the Feign client itself
+ *       enforces per-method connect and read timeouts ({@link BusServiceTimeouts}).</li>
+ *   <li>Optionally, a call still running after the recent p95 latency is hedged with a second
+ *       identical request and the first successful answer wins. Hedges are capped at
+ *       {@code bus-service.hedge.max-ratio} of recent calls, with at most {@code bus-service.hedge.max-burst}
+ *       in a row, so a slow bus-service is not hit twice as hard ({@link HedgeBudget}).</li>
+ *   <li>While the breaker is open, the last successful answer for the same query is returned
+ *       when there is one; otherwise the call fails fast.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class BusServiceClient {
+
+    private final BusServiceFeignClient feignClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Executor hedgeExecutor;
+
+    private final boolean hedgeEnabled;
+    private final HedgeDelay hedgeDelay;
+    private final HedgeBudget hedgeBudget;
+
+    private final BoundedTtlCache<TripQuery, List<TripDTO>> lastKnownGood;
+
+    private final Counter hedgesLost;
+    private final Counter hedgesWon;
+    private final Counter fallbacksServed;
+    private final Counter fallbacksMissing;
+
+    public BusServiceClient(BusServiceFeignClient feignClient,
+                            CircuitBreaker busServiceCircuitBreaker,
+                            @Qualifier("busServiceHedgeExecutor") Executor hedgeExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${bus-service.hedge.enabled:false}") boolean hedgeEnabled,
+                            @Value("${bus-service.hedge.min-delay:50ms}") Duration hedgeMinDelay,
+                            @Value("${bus-service.hedge.max-delay:1s}") Duration hedgeMaxDelay,
+                            @Value("${bus-service.hedge.max-ratio:0.1}") double hedgeMaxRatio,
+                            @Value("${bus-service.hedge.max-burst:10}") int hedgeMaxBurst,
+                            @Value("${bus-service.last-known-good.max-size:5000}") int lastKnownGoodSize,
+                            @Value("${bus-service.last-known-good.ttl:6h}") Duration lastKnownGoodTtl) {
+        this.feignClient = feignClient;
+        this.circuitBreaker = busServiceCircuitBreaker;
+        this.hedgeExecutor = hedgeExecutor;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeDelay = new HedgeDelay(hedgeMinDelay.toNanos(), hedgeMaxDelay.toNanos());
+        this.hedgeBudget = new HedgeBudget(hedgeMaxRatio, hedgeMaxBurst);
+        this.lastKnownGood = new BoundedTtlCache<>("trip-last-known-good", lastKnownGoodSize, lastKnownGoodTtl);
+
+        this.hedgesLost = Counter.builder("bus.service.hedges")
+                .description("Hedged bus-service requests, by whether the hedge answered first")
+                .tag("result", "lost")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("bus.service.hedges")
+                .description("Hedged bus-service requests, by whether the hedge answered first")
+                .tag("result", "won")
+                .register(meterRegistry);
+        this.fallbacksServed = Counter.builder("bus.service.fallbacks")
+                .description("Calls rejected by the open circuit breaker, by whether a last-known-good answer existed")
+                .tag("result", "last-known-good")
+                .register(meterRegistry);
+        this.fallbacksMissing = Counter.builder("bus.service.fallbacks")
+                .description("Calls rejected by the open circuit breaker, by whether a last-known-good answer existed")
+                .tag("result", "none")
+                .register(meterRegistry);
+    }
+
+    public List<TripDTO> getAvailableTrips(String origin, String destination, String departureDate) {
+        TripQuery query = new TripQuery(origin, destination, departureDate);
+        try {
+            List<TripDTO> trips = hedged(() -> attempt(() -> feignClient.getAvailableTrips(origin, destination, departureDate)));
+            if (trips != null) {
+                lastKnownGood.put(query, trips);
+            }
+            return trips;
+        } catch (CallNotPermittedException e) {
+            List<TripDTO> fallback = lastKnownGood.getIfPresent(query);
+            if (fallback == null) {
+                fallbacksMissing.increment();
+                throw e;
+            }
+            fallbacksServed.increment();
+            log.debug("Bus-service circuit breaker open, serving last known trips for {} -> {} on {}",
+                    origin, destination, departureDate);
+            return fallback;
+        }
+    }
+
+    public CacheStatsDTO lastKnownGoodStats() {
+        return lastKnownGood.stats();
+    }
+
+    private <T> T attempt(Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = circuitBreaker.executeSupplier(call);
+        hedgeDelay.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private <T> T hedged(Supplier<T> attempt) {
+        hedgeBudget.recordCall();
+        long delay = hedgeEnabled ? hedgeDelay.delayNanos() : -1;
+        if (delay < 0) {
+            return attempt.get();
+        }
+
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(attempt, hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            return attempt.get();
+        }
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than p95 so far, hedge it below
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for bus-service", e);
+        }
+
+        if (!hedgeBudget.tryAcquire()) {
+            return join(primary);
+        }
+        CompletableFuture<T> hedge;
+        try {
+            hedge = CompletableFuture.supplyAsync(attempt, hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            hedgeBudget.refund();
+            return join(primary);
+        }
+
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((result, error) -> settle(first, result, error, settled, failures, false));
+        hedge.whenComplete((result, error) -> settle(first, result, error, settled, failures, true));
+        return join(first);
+    }
+
+    // First success completes the call; it only fails once both attempts failed. The winner is
+    // counted before the caller is released, so the counters are current when the call returns.
+    private <T> void settle(CompletableFuture<T> first, T result, Throwable error, AtomicBoolean settled,
+                            AtomicInteger failures, boolean isHedge) {
+        if (error == null) {
+            if (settled.compareAndSet(false, true)) {
+                (isHedge ? hedgesWon : hedgesLost).increment();
+                first.complete(result);
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (cause instanceof Error fatal) {
+            throw fatal;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    private record TripQuery(String origin, String destination, String departureDate) {
+    }
+}
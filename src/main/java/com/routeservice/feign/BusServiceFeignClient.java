@@ -9,8 +9,9 @@ import java.util.List;
 
 @FeignClient(
         name = "bus-service",
-        url = "http://localhost:8081",  // ✅ Hardcoded URL
-        path = "/bus-service/api"
+        url = "${bus-service.url:http://localhost:8081}",
+        path = "/bus-service/api",
+        configuration = BusServiceFeignConfiguration.class
 )
 public interface BusServiceFeignClient {
 
@@ -0,0 +1,27 @@
+package com.routeservice.feign;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Feign configuration of the bus-service client only. It is referenced from
+ * {@link BusServiceFeignClient} and deliberately not a {@code @Configuration}, so component
+ * scanning does not apply it to every Feign client.
+ */
+public class BusServiceFeignConfiguration {
+
+    @Bean
+    public BusServiceTimeouts busServiceTimeouts(Environment environment) {
+        return new BusServiceTimeouts(environment);
+    }
+
+    // Prefers the compact Smile encoding; a bus-service that only speaks JSON still answers with JSON
+    @Bean
+    public RequestInterceptor busServiceAcceptHeader(
+            @Value("${bus-service.accept:application/x-jackson-smile, application/json;q=0.9}") String accept) {
+        return template -> template.header(HttpHeaders.ACCEPT, accept);
+    }
+}
@@ -0,0 +1,62 @@
+package com.routeservice.feign;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-method connect and read timeouts for bus-service calls, read from
+ * {@code bus-service.timeouts.<method name>.connect} and {@code .read}. Methods without an entry
+ * keep the client-wide {@code spring.cloud.openfeign.client.config.bus-service.*} timeouts.
+ */
+public class BusServiceTimeouts implements Capability {
+
+    private static final String PREFIX = "bus-service.timeouts.";
+
+    private final Environment environment;
+    private final Map<Method, Request.Options> options = new ConcurrentHashMap<>();
+
+    public BusServiceTimeouts(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, defaults) -> client.execute(request, optionsFor(request, defaults));
+    }
+
+    private Request.Options optionsFor(Request request, Request.Options defaults) {
+        MethodMetadata metadata = request.requestTemplate().methodMetadata();
+        if (metadata == null || metadata.method() == null) {
+            return defaults;
+        }
+        return options.computeIfAbsent(metadata.method(), method -> resolve(method.getName(), defaults));
+    }
+
+    private Request.Options resolve(String methodName, Request.Options defaults) {
+        Duration connect = duration(PREFIX + methodName + ".connect");
+        Duration read = duration(PREFIX + methodName + ".read");
+        if (connect == null && read == null) {
+            return defaults;
+        }
+        return new Request.Options(
+                connect != null ? connect.toMillis() : defaults.connectTimeoutMillis(), TimeUnit.MILLISECONDS,
+                read != null ? read.toMillis() : defaults.readTimeoutMillis(), TimeUnit.MILLISECONDS,
+                defaults.isFollowRedirects());
+    }
+
+    // Same formats as @Value durations: "500ms", "2s" or plain milliseconds
+    private Duration duration(String key) {
+        String value = environment.getProperty(key);
+        return value != null ? DurationStyle.detectAndParse(value) : null;
+    }
+}
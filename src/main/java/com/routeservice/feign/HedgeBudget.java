@@ -0,0 +1,45 @@
+package com.routeservice.feign;
+
+/**
+ * Token bucket limiting hedges to a ratio of recent calls: every call earns {@code maxRatio} of
+ * a hedge and every hedge spends a whole one. The bucket holds at most {@code maxBurst} hedges,
+ * so a long healthy spell cannot bank an allowance that a later brownout would spend all at once.
+ */
+final class HedgeBudget {
+
+    // Thousandths of a hedge, so ten calls at a 0.1 ratio earn exactly one
+    private static final long HEDGE = 1000;
+
+    private final long earnedPerCall;
+    private final long maxTokens;
+
+    // Guarded by "this"; starts empty so a cold client does not hedge before it has made calls
+    private long tokens;
+
+    HedgeBudget(double maxRatio, int maxBurst) {
+        this.earnedPerCall = Math.round(maxRatio * HEDGE);
+        this.maxTokens = maxBurst * HEDGE;
+    }
+
+    synchronized void recordCall() {
+        tokens = Math.min(maxTokens, tokens + earnedPerCall);
+    }
+
+    /**
+     * @return whether a hedge may be sent now; if so its token has been spent
+     */
+    synchronized boolean tryAcquire() {
+        if (tokens < HEDGE) {
+            return false;
+        }
+        tokens -= HEDGE;
+        return true;
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire()} for a hedge that was never sent.
+     */
+    synchronized void refund() {
+        tokens = Math.min(maxTokens, tokens + HEDGE);
+    }
+}
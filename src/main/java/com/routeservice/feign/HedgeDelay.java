@@ -0,0 +1,52 @@
+package com.routeservice.feign;
+
+import java.util.Arrays;
+
+/**
+ * How long to wait for a bus-service call before hedging it: the p95 of the most recent
+ * successful call latencies, clamped to [minDelay, maxDelay]. Until enough samples exist the
+ * delay is unknown and calls are not hedged.
+ */
+final class HedgeDelay {
+
+    private static final int SAMPLES = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long minNanos;
+    private final long maxNanos;
+
+    // Ring buffer, guarded by "this"
+    private final long[] latencies = new long[SAMPLES];
+    private int next;
+    private int count;
+    private int sinceRecompute;
+
+    private volatile long delayNanos = -1;
+
+    HedgeDelay(long minNanos, long maxNanos) {
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    synchronized void record(long latencyNanos) {
+        latencies[next] = latencyNanos;
+        next = (next + 1) % SAMPLES;
+        count = Math.min(count + 1, SAMPLES);
+
+        if (count >= MIN_SAMPLES && (delayNanos < 0 || ++sinceRecompute >= RECOMPUTE_EVERY)) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            long p95 = sorted[(int) Math.ceil(0.95 * count) - 1];
+            delayNanos = Math.max(minNanos, Math.min(maxNanos, p95));
+            sinceRecompute = 0;
+        }
+    }
+
+    /**
+     * @return the current hedge delay in nanoseconds, or -1 while there are too few samples
+     */
+    long delayNanos() {
+        return delayNanos;
+    }
+}
@@ -0,0 +1,106 @@
+package com.routeservice.feign;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpResponseInterceptor;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.http.protocol.HttpContext;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Records the size of Feign response bodies as received, before gzip decoding, tagged by media
+ * type and content encoding. Response interceptors run inside the client's decompression step,
+ * so the entity seen here is still the one that came over the wire.
+ */
+public class WireBytesInterceptor implements HttpResponseInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public WireBytesInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void process(HttpResponse response, EntityDetails entityDetails, HttpContext context) {
+        if (!(response instanceof ClassicHttpResponse classic) || classic.getEntity() == null) {
+            return;
+        }
+        HttpEntity entity = classic.getEntity();
+        DistributionSummary summary = DistributionSummary.builder("feign.client.response.bytes")
+                .description("Feign response bodies as received, before decompression")
+                .baseUnit("bytes")
+                .tag("content.type", mediaType(entity.getContentType()))
+                .tag("content.encoding", entity.getContentEncoding() != null ? entity.getContentEncoding() : "identity")
+                .register(meterRegistry);
+
+        classic.setEntity(new HttpEntityWrapper(entity) {
+            @Override
+            public InputStream getContent() throws IOException {
+                return new CountingInputStream(super.getContent(), summary);
+            }
+        });
+    }
+
+    private static String mediaType(String contentType) {
+        if (contentType == null) {
+            return "none";
+        }
+        int parameters = contentType.indexOf(';');
+        return (parameters >= 0 ? contentType.substring(0, parameters) : contentType).trim();
+    }
+
+    // Records once, at end of stream or close, whichever comes first
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final DistributionSummary summary;
+        private long bytes;
+        private boolean recorded;
+
+        CountingInputStream(InputStream in, DistributionSummary summary) {
+            super(in);
+            this.summary = summary;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytes++;
+            } else {
+                record();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                bytes += n;
+            } else if (n < 0) {
+                record();
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            record();
+            super.close();
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                summary.record(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.routeservice.graph;
+
+import com.routeservice.dto.JourneyDTO;
+import com.routeservice.dto.JourneyLegDTO;
+import com.routeservice.dto.JourneyMetric;
+import com.routeservice.entity.Route;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.util.CityNames;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory journey planner over all active routes. A journey is a sequence of legs, each leg
+ * riding one route from any of its cities to any later city on the same route.
+ *
+ * <p>Searches run round-based (one round per leg, RAPTOR style) over primitive arrays of the
+ * current {@link CompiledGraph}, so no database access happens at query time. Route and stop
+ * changes only reload the affected routes and recompile the arrays from the cached patterns, on a
+ * single builder thread after the writing transaction has committed; changes arriving while it is
+ * busy are coalesced into its next round. Until then searches see the previous graph.
+ */
+@Component
+@Slf4j
+public class RouteGraph {
+
+    public static final int MAX_TRANSFERS = 2;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Guarded by "this"; the compiled graph is rebuilt from it after every batch of changes
+    private final Map<String, RoutePattern> patterns = new HashMap<>();
+
+    // Routes changed since the builder last reloaded them; the builder coalesces whatever piled up
+    private final Set<String> changedRouteIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "route-graph");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile CompiledGraph graph = CompiledGraph.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadAll() {
+        try {
+            List<Route> routes = routeRepository.findWithStopsByIsActiveTrue();
+
+            patterns.clear();
+            for (Route route : routes) {
+                patterns.put(route.getRouteId(), RoutePattern.of(route, route.getStops()));
+            }
+            graph = CompiledGraph.compile(patterns.values());
+            log.info("Route graph loaded with {} routes and {} cities", patterns.size(), graph.cityNames.length);
+        } catch (Exception e) {
+            log.error("Failed to load route graph: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        changedRouteIds.add(event.getRouteId());
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoutesChanged(RouteBatchChangedEvent event) {
+        for (RouteChangedEvent change : event.getChanges()) {
+            changedRouteIds.add(change.getRouteId());
+        }
+        scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            builder.execute(this::rebuild);
+        }
+    }
+
+    // Reloads the changed routes and recompiles once per round, however many changes arrived meanwhile
+    private void rebuild() {
+        boolean failed = false;
+        try {
+            // Read-write so it runs on the primary: a replica could still be behind the change
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            while (!changedRouteIds.isEmpty()) {
+                Set<String> routeIds = new HashSet<>(changedRouteIds);
+                changedRouteIds.removeAll(routeIds);
+                try {
+                    List<Route> routes = transaction.execute(status ->
+                            routeRepository.findWithStopsByRouteIdInOrderByRouteId(routeIds));
+                    apply(routeIds, routes);
+                } catch (RuntimeException e) {
+                    changedRouteIds.addAll(routeIds);
+                    throw e;
+                }
+                log.debug("Route graph updated for {} routes", routeIds.size());
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            log.error("Failed to update route graph, retrying with the next change: {}", e.getMessage());
+        } finally {
+            rebuildScheduled.set(false);
+        }
+        // A change that arrived after the last check found the rebuild still flagged as scheduled
+        if (!failed && !changedRouteIds.isEmpty()) {
+            scheduleRebuild();
+        }
+    }
+
+    private synchronized void apply(Set<String> routeIds, List<Route> routes) {
+        routeIds.forEach(patterns::remove);
+        for (Route route : routes) {
+            if (Boolean.TRUE.equals(route.getIsActive())) {
+                patterns.put(route.getRouteId(), RoutePattern.of(route, route.getStops()));
+            }
+        }
+        graph = CompiledGraph.compile(patterns.values());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * Returns the best journey for every number of legs up to {@code maxTransfers + 1} that beats
+     * all journeys with fewer legs, ordered by number of transfers.
+     */
+    public List<JourneyDTO> findJourneys(String originCity, String destinationCity, int maxTransfers, JourneyMetric metric) {
+        CompiledGraph g = graph;
+        Integer from = g.cityIds.get(CityNames.normalize(originCity));
+        Integer to = g.cityIds.get(CityNames.normalize(destinationCity));
+        if (from == null || to == null || from.equals(to)) {
+            return List.of();
+        }
+
+        int cityCount = g.cityNames.length;
+        int rounds = Math.min(maxTransfers, MAX_TRANSFERS) + 1;
+
+        double[][] cost = new double[rounds + 1][cityCount];
+        int[][] viaRoute = new int[rounds + 1][cityCount];
+        int[][] boardAt = new int[rounds + 1][cityCount];
+        int[][] alightAt = new int[rounds + 1][cityCount];
+        double[] best = new double[cityCount];
+        boolean[] marked = new boolean[cityCount];
+
+        for (int[] row : viaRoute) {
+            Arrays.fill(row, -1); // rounds skipped by the early exit below must not look reached
+        }
+        Arrays.fill(cost[0], Double.POSITIVE_INFINITY);
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        cost[0][from] = 0.0;
+        best[from] = 0.0;
+        marked[from] = true;
+
+        for (int k = 1; k <= rounds; k++) {
+            double[] previous = cost[k - 1];
+            double[] current = cost[k];
+            System.arraycopy(previous, 0, current, 0, cityCount);
+
+            boolean[] improved = new boolean[cityCount];
+            boolean anyImproved = false;
+
+            for (int city = 0; city < cityCount; city++) {
+                if (!marked[city]) {
+                    continue;
+                }
+                double base = previous[city];
+                for (int b = g.boardOffsets[city]; b < g.boardOffsets[city + 1]; b++) {
+                    int r = g.boardRoutes[b];
+                    int p = g.boardPositions[b];
+                    int[] cityIds = g.routeCityIds[r];
+                    double[] weights = metric == JourneyMetric.DURATION ? g.routes[r].hours : g.routes[r].km;
+
+                    for (int q = p + 1; q < cityIds.length; q++) {
+                        double candidate = base + (weights[q] - weights[p]);
+                        if (candidate >= best[to]) {
+                            break; // weights only grow along a route, nothing further can win
+                        }
+                        int next = cityIds[q];
+                        if (candidate < best[next]) {
+                            best[next] = candidate;
+                            current[next] = candidate;
+                            viaRoute[k][next] = r;
+                            boardAt[k][next] = p;
+                            alightAt[k][next] = q;
+                            improved[next] = true;
+                            anyImproved = true;
+                        }
+                    }
+                }
+            }
+
+            if (!anyImproved) {
+                break;
+            }
+            marked = improved;
+        }
+
+        List<JourneyDTO> journeys = new ArrayList<>();
+        for (int k = 1; k <= rounds; k++) {
+            if (viaRoute[k][to] != -1) {
+                journeys.add(buildJourney(g, from, to, k, viaRoute, boardAt, alightAt));
+            }
+        }
+        return journeys;
+    }
+
+    private JourneyDTO buildJourney(CompiledGraph g, int from, int to, int round,
+                                    int[][] viaRoute, int[][] boardAt, int[][] alightAt) {
+        List<JourneyLegDTO> legs = new ArrayList<>(round);
+        double totalDistance = 0.0;
+        double totalDuration = 0.0;
+
+        int city = to;
+        int k = round;
+        while (city != from && k > 0) {
+            // A city that was not improved in round k keeps the value (and the path) of an earlier round
+            while (k > 0 && viaRoute[k][city] == -1) {
+                k--;
+            }
+            if (k == 0) {
+                break;
+            }
+            RoutePattern route = g.routes[viaRoute[k][city]];
+            int p = boardAt[k][city];
+            int q = alightAt[k][city];
+
+            double distance = route.km[q] - route.km[p];
+            double duration = route.hours[q] - route.hours[p];
+            totalDistance += distance;
+            totalDuration += duration;
+            legs.add(JourneyLegDTO.builder()
+                    .routeId(route.routeId)
+                    .routeName(route.routeName)
+                    .fromCity(route.cities[p])
+                    .toCity(route.cities[q])
+                    .distance(distance)
+                    .duration(duration)
+                    .build());
+
+            city = g.routeCityIds[viaRoute[k][city]][p];
+            k--;
+        }
+        Collections.reverse(legs);
+
+        return JourneyDTO.builder()
+                .originCity(g.cityNames[from])
+                .destinationCity(g.cityNames[to])
+                .transfers(legs.size() - 1)
+                .totalDistance(totalDistance)
+                .totalDuration(totalDuration)
+                .legs(legs)
+                .build();
+    }
+
+    /**
+     * Flattened, immutable form of the route patterns. Boardings are stored in CSR layout:
+     * for city {@code c}, entries {@code boardOffsets[c]..boardOffsets[c + 1]} hold the
+     * (route, position) pairs where a passenger can board at that city.
+     */
+    static final class CompiledGraph {
+
+        static final CompiledGraph EMPTY = compile(List.of());
+
+        final String[] cityNames;
+        final Map<String, Integer> cityIds;
+        final RoutePattern[] routes;
+        final int[][] routeCityIds;
+        final int[] boardOffsets;
+        final int[] boardRoutes;
+        final int[] boardPositions;
+
+        private CompiledGraph(String[] cityNames, Map<String, Integer> cityIds, RoutePattern[] routes,
+                              int[][] routeCityIds, int[] boardOffsets, int[] boardRoutes, int[] boardPositions) {
+            this.cityNames = cityNames;
+            this.cityIds = cityIds;
+            this.routes = routes;
+            this.routeCityIds = routeCityIds;
+            this.boardOffsets = boardOffsets;
+            this.boardRoutes = boardRoutes;
+            this.boardPositions = boardPositions;
+        }
+
+        static CompiledGraph compile(Iterable<RoutePattern> patterns) {
+            List<RoutePattern> routeList = new ArrayList<>();
+            patterns.forEach(routeList::add);
+            RoutePattern[] routes = routeList.toArray(new RoutePattern[0]);
+
+            Map<String, Integer> cityIds = new HashMap<>();
+            List<String> cityNames = new ArrayList<>();
+            int[][] routeCityIds = new int[routes.length][];
+            int boardingCount = 0;
+
+            for (int r = 0; r < routes.length; r++) {
+                String[] cities = routes[r].cities;
+                int[] ids = new int[cities.length];
+                for (int i = 0; i < cities.length; i++) {
+                    Integer id = cityIds.get(cities[i]);
+                    if (id == null) {
+                        id = cityNames.size();
+                        cityIds.put(cities[i], id);
+                        cityNames.add(cities[i]);
+                    }
+                    ids[i] = id;
+                }
+                routeCityIds[r] = ids;
+                boardingCount += cities.length - 1;
+            }
+
+            int cityCount = cityNames.size();
+            int[] boardOffsets = new int[cityCount + 1];
+            for (int[] ids : routeCityIds) {
+                for (int i = 0; i < ids.length - 1; i++) {
+                    boardOffsets[ids[i] + 1]++;
+                }
+            }
+            for (int c = 0; c < cityCount; c++) {
+                boardOffsets[c + 1] += boardOffsets[c];
+            }
+
+            int[] boardRoutes = new int[boardingCount];
+            int[] boardPositions = new int[boardingCount];
+            int[] fill = Arrays.copyOf(boardOffsets, cityCount);
+            for (int r = 0; r < routeCityIds.length; r++) {
+                int[] ids = routeCityIds[r];
+                for (int i = 0; i < ids.length - 1; i++) {
+                    int slot = fill[ids[i]]++;
+                    boardRoutes[slot] = r;
+                    boardPositions[slot] = i;
+                }
+            }
+
+            return new CompiledGraph(cityNames.toArray(new String[0]), cityIds, routes,
+                    routeCityIds, boardOffsets, boardRoutes, boardPositions);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.routeservice.graph;
+
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+import com.routeservice.util.CityNames;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The ordered city sequence of one active route (origin, active stops, destination) together
+ * with cumulative distance and duration at every position. Immutable once built.
+ */
+final class RoutePattern {
+
+    final String routeId;
+    final String routeName;
+    final String[] cities;
+    final double[] km;     // cumulative distance from origin
+    final double[] hours;  // cumulative travel time from origin
+
+    private RoutePattern(String routeId, String routeName, String[] cities, double[] km, double[] hours) {
+        this.routeId = routeId;
+        this.routeName = routeName;
+        this.cities = cities;
+        this.km = km;
+        this.hours = hours;
+    }
+
+    static RoutePattern of(Route route, List<RouteStop> stops) {
+        List<RouteStop> ordered = stops == null ? List.of() : stops.stream()
+                .filter(stop -> Boolean.TRUE.equals(stop.getIsActive()))
+                .sorted(Comparator.comparing(RouteStop::getStopSequence, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        int size = ordered.size() + 2;
+        String[] cities = new String[size];
+        double[] km = new double[size];
+
+        cities[0] = CityNames.normalize(route.getOriginCity());
+        km[0] = 0.0;
+        for (int i = 0; i < ordered.size(); i++) {
+            RouteStop stop = ordered.get(i);
+            cities[i + 1] = CityNames.normalize(stop.getCityName());
+            km[i + 1] = toDouble(stop.getDistanceFromOrigin());
+        }
+        cities[size - 1] = CityNames.normalize(route.getDestinationCity());
+        km[size - 1] = toDouble(route.getTotalDistance());
+
+        fillDistances(km);
+
+        double totalKm = km[size - 1];
+        double totalHours = route.getEstimatedDuration() != null ? route.getEstimatedDuration().doubleValue() : 0.0;
+        double[] hours = new double[size];
+        for (int i = 0; i < size; i++) {
+            // Stops only carry a distance, so travel time is spread proportionally along the route
+            hours[i] = totalKm > 0 ? totalHours * km[i] / totalKm : totalHours * i / (size - 1);
+        }
+
+        return new RoutePattern(route.getRouteId(), route.getRouteName(), cities, km, hours);
+    }
+
+    // Missing distances are interpolated by position; the result is forced to be non-decreasing
+    // so that every leg has a non-negative cost.
+    private static void fillDistances(double[] km) {
+        int last = km.length - 1;
+        if (Double.isNaN(km[last])) {
+            double maxKnown = Double.NaN;
+            for (int i = 1; i < last; i++) {
+                if (!Double.isNaN(km[i])) {
+                    maxKnown = Double.isNaN(maxKnown) ? km[i] : Math.max(maxKnown, km[i]);
+                }
+            }
+            km[last] = Double.isNaN(maxKnown) ? last : maxKnown;
+        }
+
+        int previousKnown = 0;
+        for (int i = 1; i <= last; i++) {
+            if (Double.isNaN(km[i])) {
+                continue;
+            }
+            for (int j = previousKnown + 1; j < i; j++) {
+                km[j] = km[previousKnown] + (km[i] - km[previousKnown]) * (j - previousKnown) / (i - previousKnown);
+            }
+            previousKnown = i;
+        }
+
+        for (int i = 1; i <= last; i++) {
+            km[i] = Math.max(km[i], km[i - 1]);
+        }
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,83 @@
+package com.routeservice.metrics;
+
+import com.routeservice.cache.RouteLookupCache;
+import com.routeservice.cache.RoutePairFilter;
+import com.routeservice.cache.TripAvailabilityCache;
+import com.routeservice.dto.CacheStatsDTO;
+import com.routeservice.dto.PairFilterStatsDTO;
+import com.routeservice.feign.BusServiceClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Publishes the statistics the caches and the pair filter already keep, so they can be scraped
+ * instead of polled from {@code /cache/stats}. Values are read at scrape time.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    private final RouteLookupCache routeLookupCache;
+    private final TripAvailabilityCache tripAvailabilityCache;
+    private final RoutePairFilter routePairFilter;
+    private final BusServiceClient busServiceClient;
+
+    public CacheMetrics(RouteLookupCache routeLookupCache, TripAvailabilityCache tripAvailabilityCache,
+                        RoutePairFilter routePairFilter, BusServiceClient busServiceClient) {
+        this.routeLookupCache = routeLookupCache;
+        this.tripAvailabilityCache = tripAvailabilityCache;
+        this.routePairFilter = routePairFilter;
+        this.busServiceClient = busServiceClient;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, routeLookupCache, RouteLookupCache::stats);
+        bindCache(registry, tripAvailabilityCache, TripAvailabilityCache::stats);
+        bindCache(registry, busServiceClient, BusServiceClient::lastKnownGoodStats);
+
+        pairFilterCounter(registry, "route.pair.filter.checks", PairFilterStatsDTO::getChecks);
+        pairFilterCounter(registry, "route.pair.filter.negatives", PairFilterStatsDTO::getDefiniteNegatives);
+        pairFilterCounter(registry, "route.pair.filter.false.positives", PairFilterStatsDTO::getFalsePositives);
+        Gauge.builder("route.pair.filter.pairs", routePairFilter, filter -> valueOf(filter.stats().getPairs()))
+                .register(registry);
+        Gauge.builder("route.pair.filter.memory", routePairFilter, filter -> valueOf(filter.stats().getMemoryBytes()))
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    // Meters hold their state object weakly, so it has to be the cache bean itself, not a lambda
+    private static <C> void bindCache(MeterRegistry registry, C cache, Function<C, CacheStatsDTO> stats) {
+        String name = stats.apply(cache).getName();
+        Gauge.builder("route.cache.size", cache, c -> valueOf(stats.apply(c).getSize()))
+                .tag("cache", name)
+                .register(registry);
+        cacheCounter(registry, "route.cache.requests", name, "hit", cache, stats, CacheStatsDTO::getHits);
+        cacheCounter(registry, "route.cache.requests", name, "stale", cache, stats, CacheStatsDTO::getStaleHits);
+        cacheCounter(registry, "route.cache.requests", name, "miss", cache, stats, CacheStatsDTO::getMisses);
+        cacheCounter(registry, "route.cache.removals", name, "eviction", cache, stats, CacheStatsDTO::getEvictions);
+        cacheCounter(registry, "route.cache.removals", name, "expiration", cache, stats, CacheStatsDTO::getExpirations);
+        cacheCounter(registry, "route.cache.removals", name, "invalidation", cache, stats, CacheStatsDTO::getInvalidations);
+    }
+
+    private static <C> void cacheCounter(MeterRegistry registry, String meter, String name, String result, C cache,
+                                         Function<C, CacheStatsDTO> stats, Function<CacheStatsDTO, ? extends Number> value) {
+        FunctionCounter.builder(meter, cache, c -> valueOf(value.apply(stats.apply(c))))
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private void pairFilterCounter(MeterRegistry registry, String meter, Function<PairFilterStatsDTO, Long> value) {
+        FunctionCounter.builder(meter, routePairFilter, filter -> valueOf(value.apply(filter.stats())))
+                .register(registry);
+    }
+
+    private static double valueOf(Number value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+}
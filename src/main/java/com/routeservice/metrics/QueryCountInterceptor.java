@@ -0,0 +1,61 @@
+package com.routeservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the number of JPA statements per request as the {@code route.jpa.statements}
+ * distribution, tagged like {@code http.server.requests}. Async requests are recorded once, when
+ * their final dispatch completes.
+ */
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String COUNTER_ATTRIBUTE = QueryCountInterceptor.class.getName() + ".counter";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async request passes through here again on its final dispatch and keeps its counter
+        AtomicLong counter = (AtomicLong) request.getAttribute(COUNTER_ATTRIBUTE);
+        if (counter == null) {
+            counter = new AtomicLong();
+            request.setAttribute(COUNTER_ATTRIBUTE, counter);
+        }
+        QueryCounter.bind(counter);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.unbind();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryCounter.unbind();
+        AtomicLong counter = (AtomicLong) request.getAttribute(COUNTER_ATTRIBUTE);
+        if (counter == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("route.jpa.statements")
+                .description("SQL statements prepared by Hibernate per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(counter.get());
+    }
+}
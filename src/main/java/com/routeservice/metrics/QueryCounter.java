@@ -0,0 +1,56 @@
+package com.routeservice.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements Hibernate prepares on behalf of the current request. The counter is
+ * bound to the request thread by {@link QueryCountInterceptor} and carried over to executor
+ * threads by {@link #taskDecorator()}, so statements run by async search stages are included.
+ */
+public final class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicLong> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicLong counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+
+    static void bind(AtomicLong counter) {
+        CURRENT.set(counter);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    // Captures the submitting thread's counter when the task is handed to an executor
+    public static TaskDecorator taskDecorator() {
+        return task -> {
+            AtomicLong counter = CURRENT.get();
+            if (counter == null) {
+                return task;
+            }
+            return () -> {
+                AtomicLong previous = CURRENT.get();
+                CURRENT.set(counter);
+                try {
+                    task.run();
+                } finally {
+                    if (previous != null) {
+                        CURRENT.set(previous);
+                    } else {
+                        CURRENT.remove();
+                    }
+                }
+            };
+        };
+    }
+}
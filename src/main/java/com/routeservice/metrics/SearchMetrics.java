@@ -0,0 +1,43 @@
+package com.routeservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Result sizes and degraded outcomes of searches, tagged by search type
+ * ({@code available}, {@code batch}, {@code calendar}).
+ */
+@Component
+public class SearchMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public SearchMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordResults(String search, int routes, int trips) {
+        summary("route.search.routes", "Routes returned per search", search).record(routes);
+        summary("route.search.trips", "Bus-service trips considered per search", search).record(trips);
+    }
+
+    // The bus-service call did not answer within route.search.trips-timeout and the search went on without trips
+    public void recordTripsTimeout(String search) {
+        Counter.builder("route.search.trips.timeouts")
+                .description("Searches answered without trips because bus-service was too slow")
+                .tag("search", search)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private DistributionSummary summary(String name, String description, String search) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("search", search)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry);
+    }
+}
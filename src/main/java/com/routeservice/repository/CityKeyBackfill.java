@@ -0,0 +1,76 @@
+package com.routeservice.repository;
+
+import com.routeservice.util.CityNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the city key columns of rows written before they existed (or by other writers), in
+ * chunks, before the application starts serving. The keys are computed with
+ * {@link CityNames#normalize} so they match what the entity lifecycle writes.
+ */
+@Component
+@Slf4j
+public class CityKeyBackfill {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${route.city-keys.backfill-chunk-size:1000}")
+    private int chunkSize;
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void backfill() {
+        long routes = backfillTable(
+                "SELECT route_id, origin_city, destination_city FROM route " +
+                        "WHERE origin_city_key IS NULL OR destination_city_key IS NULL LIMIT ?",
+                "UPDATE route SET origin_city_key = ?, destination_city_key = ? WHERE route_id = ?", 2);
+        long stops = backfillTable(
+                "SELECT stop_id, city_name FROM route_stop WHERE city_name_key IS NULL LIMIT ?",
+                "UPDATE route_stop SET city_name_key = ? WHERE stop_id = ?", 1);
+        if (routes > 0 || stops > 0) {
+            log.info("Backfilled city keys for {} routes and {} stops", routes, stops);
+        }
+    }
+
+    // The select returns the ID followed by cityColumns city names; the update takes the keys in
+    // the same order followed by the ID
+    private long backfillTable(String selectSql, String updateSql, int cityColumns) {
+        long total = 0;
+        while (true) {
+            List<String[]> rows = jdbcTemplate.query(selectSql, (rs, rowNum) -> {
+                String[] row = new String[cityColumns + 1];
+                for (int i = 0; i <= cityColumns; i++) {
+                    row[i] = rs.getString(i + 1);
+                }
+                return row;
+            }, chunkSize);
+            if (rows.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.batchUpdate(updateSql, rows, rows.size(), (ps, row) -> {
+                for (int i = 1; i <= cityColumns; i++) {
+                    ps.setString(i, keyOf(row[i]));
+                }
+                ps.setString(cityColumns + 1, row[0]);
+            });
+            total += rows.size();
+            if (rows.size() < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    // Never leave NULL behind, otherwise the same row would be selected again
+    private static String keyOf(String cityName) {
+        String key = CityNames.normalize(cityName);
+        return key != null ? key : "";
+    }
+}
@@ -0,0 +1,37 @@
+package com.routeservice.repository;
+
+import com.routeservice.entity.RouteChange;
+import com.routeservice.event.RouteChangeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RouteChangeRepository extends JpaRepository<RouteChange, Long> {
+
+    List<RouteChange> findBySequenceGreaterThanOrderBySequence(long sequence, Limit limit);
+
+    // Entries with a newer entry for the same route; the feed only ever reports a route's latest state
+    @Query("SELECT c.sequence FROM RouteChange c WHERE EXISTS " +
+            "(SELECT 1 FROM RouteChange n WHERE n.routeId = c.routeId AND n.sequence > c.sequence) " +
+            "ORDER BY c.sequence")
+    List<Long> findSupersededSequences(Limit limit);
+
+    @Query("SELECT c.sequence FROM RouteChange c WHERE c.changeType = :changeType AND c.changedAt < :before " +
+            "AND NOT EXISTS (SELECT 1 FROM RouteChange n WHERE n.routeId = c.routeId AND n.sequence > c.sequence) " +
+            "ORDER BY c.sequence")
+    List<Long> findLatestSequencesByChangeTypeBefore(@Param("changeType") RouteChangeType changeType,
+                                                      @Param("before") LocalDateTime before, Limit limit);
+
+    // Two steps (select, then delete by key) because MySQL cannot delete from a table it subqueries
+    @Modifying
+    @Query("DELETE FROM RouteChange c WHERE c.sequence IN :sequences")
+    int deleteBySequenceIn(@Param("sequences") Collection<Long> sequences);
+}
@@ -1,32 +1,118 @@
 package com.routeservice.repository;
 
 import com.routeservice.entity.Route;
+import com.routeservice.repository.projection.RouteKeyView;
+import com.routeservice.repository.projection.RouteSearchRow;
+import com.routeservice.repository.projection.RouteVersionView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RouteRepository extends JpaRepository<Route, String> {
 
-    List<Route> findByOriginCityAndDestinationCity(String originCity, String destinationCity);
+    @EntityGraph(attributePaths = "stops")
+    @Query("SELECT r FROM Route r")
+    List<Route> findAllWithStops();
 
-    List<Route> findByOriginCityAndDestinationCityAndIsActiveTrue(String originCity, String destinationCity);
+    @EntityGraph(attributePaths = "stops")
+    Optional<Route> findWithStopsByRouteId(String routeId);
 
-    List<Route> findByOriginCity(String originCity);
+    @EntityGraph(attributePaths = "stops")
+    List<Route> findWithStopsByRouteIdInOrderByRouteId(Collection<String> routeIds);
 
-    List<Route> findByDestinationCity(String destinationCity);
+    // Keyset page of route IDs: resumes after the last ID of the previous page, so deep pages cost
+    // the same as the first one. Null filters are ignored; city filters are normalized keys.
+    @Query("SELECT r.routeId FROM Route r WHERE r.routeId > :after " +
+            "AND (:originCity IS NULL OR r.originCityKey = :originCity) " +
+            "AND (:destinationCity IS NULL OR r.destinationCityKey = :destinationCity) " +
+            "AND (:active IS NULL OR r.isActive = :active) " +
+            "ORDER BY r.routeId")
+    List<String> findRouteIdsAfter(@Param("after") String after,
+                                   @Param("originCity") String originCity,
+                                   @Param("destinationCity") String destinationCity,
+                                   @Param("active") Boolean active,
+                                   Limit limit);
+
+    // City finders compare the indexed key columns, so arguments must go through CityNames.normalize
+
+    List<Route> findByOriginCityKeyAndDestinationCityKey(String originCityKey, String destinationCityKey);
+
+    // Loaded read-only: the entities are only copied into DTOs, so Hibernate keeps no dirty-checking snapshots
+    @EntityGraph(attributePaths = "stops")
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Route> findWithStopsByOriginCityKeyAndDestinationCityKey(String originCityKey, String destinationCityKey);
+
+    // Search path: active routes with their active stop names as flat rows (see RouteSearchRow),
+    // joined through idx_route_stop_route_active_seq
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.routeservice.repository.projection.RouteSearchRow(r.routeId, r.routeName, " +
+            "r.originCity, r.destinationCity, r.originCityKey, r.destinationCityKey, r.totalDistance, " +
+            "r.estimatedDuration, s.cityName) " +
+            "FROM Route r LEFT JOIN r.stops s ON s.isActive = true " +
+            "WHERE r.originCityKey = :originCity AND r.destinationCityKey = :destinationCity AND r.isActive = true " +
+            "ORDER BY r.routeId, s.stopSequence")
+    List<RouteSearchRow> findSearchRows(@Param("originCity") String originCityKey,
+                                        @Param("destinationCity") String destinationCityKey);
+
+    // Superset of several city pairs in one query; callers keep only the pairs they asked for
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.routeservice.repository.projection.RouteSearchRow(r.routeId, r.routeName, " +
+            "r.originCity, r.destinationCity, r.originCityKey, r.destinationCityKey, r.totalDistance, " +
+            "r.estimatedDuration, s.cityName) " +
+            "FROM Route r LEFT JOIN r.stops s ON s.isActive = true " +
+            "WHERE r.originCityKey IN :originCities AND r.destinationCityKey IN :destinationCities AND r.isActive = true " +
+            "ORDER BY r.routeId, s.stopSequence")
+    List<RouteSearchRow> findSearchRowsIn(@Param("originCities") Collection<String> originCityKeys,
+                                          @Param("destinationCities") Collection<String> destinationCityKeys);
+
+    List<Route> findByOriginCityKey(String originCityKey);
+
+    List<Route> findByDestinationCityKey(String destinationCityKey);
 
     List<Route> findByIsActiveTrue();
 
+    @EntityGraph(attributePaths = "stops")
+    List<Route> findWithStopsByIsActiveTrue();
+
     Optional<Route> findByRouteName(String routeName);
 
-    boolean existsByOriginCityAndDestinationCity(String originCity, String destinationCity);
+    boolean existsByOriginCityKeyAndDestinationCityKey(String originCityKey, String destinationCityKey);
+
+    @Query("SELECT r.routeId AS routeId, r.originCityKey AS originCity, r.destinationCityKey AS destinationCity FROM Route r")
+    List<RouteKeyView> findAllRouteKeys();
+
+    // Version lookups for conditional GETs: a single indexed row read, no stops and no entity loading
+
+    @Query("SELECT r.routeId AS routeId, r.version AS version, r.createdAt AS createdAt, r.updatedAt AS updatedAt " +
+            "FROM Route r WHERE r.routeId = :routeId")
+    Optional<RouteVersionView> findVersionByRouteId(@Param("routeId") String routeId);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT r.routeId AS routeId, r.version AS version, r.createdAt AS createdAt, r.updatedAt AS updatedAt " +
+            "FROM Route r WHERE r.originCityKey = :originCity AND r.destinationCityKey = :destinationCity " +
+            "ORDER BY r.routeId")
+    List<RouteVersionView> findVersionsByCityKeys(@Param("originCity") String originCityKey,
+                                                  @Param("destinationCity") String destinationCityKey);
 
-    @Query("SELECT r FROM Route r WHERE LOWER(r.originCity) = LOWER(:originCity) AND LOWER(r.destinationCity) = LOWER(:destinationCity)")
-    List<Route> findByOriginAndDestinationIgnoreCase(@Param("originCity") String originCity,
-                                                     @Param("destinationCity") String destinationCity);
+    // Candidates that clash with an import chunk by ID or by city pair; exact pairs are matched by the caller
+    @Query("SELECT r.routeId AS routeId, r.originCityKey AS originCity, r.destinationCityKey AS destinationCity " +
+            "FROM Route r WHERE r.routeId IN :routeIds " +
+            "OR (r.originCityKey IN :originCities AND r.destinationCityKey IN :destinationCities)")
+    List<RouteKeyView> findImportConflicts(@Param("routeIds") Collection<String> routeIds,
+                                           @Param("originCities") Collection<String> originCities,
+                                           @Param("destinationCities") Collection<String> destinationCities);
 }
\ No newline at end of file
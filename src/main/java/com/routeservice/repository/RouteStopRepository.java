@@ -11,7 +11,8 @@ public interface RouteStopRepository extends JpaRepository<RouteStop, String> {
 
     List<RouteStop> findByRouteRouteId(String routeId);
 
-    List<RouteStop> findByRouteRouteIdAndIsActiveTrue(String routeId);
+    // Served entirely by idx_route_stop_route_active_seq, including the ordering
+    List<RouteStop> findByRouteRouteIdAndIsActiveTrueOrderByStopSequence(String routeId);
 
-    List<RouteStop> findByCityName(String cityName);
+    List<RouteStop> findByCityNameKey(String cityNameKey); // CityNames.normalize of the city name
 }
\ No newline at end of file
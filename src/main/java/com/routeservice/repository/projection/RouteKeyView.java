@@ -0,0 +1,9 @@
+package com.routeservice.repository.projection;
+
+public interface RouteKeyView {
+    String getRouteId();
+
+    String getOriginCity();
+
+    String getDestinationCity();
+}
@@ -0,0 +1,19 @@
+package com.routeservice.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat search row: one per active route and active stop, ordered by route and stop sequence. The
+ * stop column is null for a route without active stops. Built by a constructor expression, so
+ * Hibernate neither manages nor snapshots it.
+ */
+public record RouteSearchRow(String routeId,
+                             String routeName,
+                             String originCity,
+                             String destinationCity,
+                             String originCityKey,
+                             String destinationCityKey,
+                             BigDecimal totalDistance,
+                             BigDecimal estimatedDuration,
+                             String stopCityName) {
+}
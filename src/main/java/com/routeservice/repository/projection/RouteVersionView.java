@@ -0,0 +1,13 @@
+package com.routeservice.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface RouteVersionView {
+    String getRouteId();
+
+    long getVersion();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
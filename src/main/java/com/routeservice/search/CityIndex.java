@@ -0,0 +1,210 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.CitySuggestionDTO;
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.repository.RouteStopRepository;
+import com.routeservice.util.CityNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix index over the normalized names of all cities served by active routes (origins,
+ * destinations and active stops), ranked by the number of routes serving each city.
+ *
+ * <p>Lookups binary-search a sorted array snapshot and never touch the database. A route or stop
+ * change only recounts the cities of the affected route before a new snapshot is published.
+ */
+@Component
+@Slf4j
+public class CityIndex {
+
+    public static final int MAX_SUGGESTIONS = 50;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RouteStopRepository routeStopRepository;
+
+    // Guarded by "this"; the snapshot is rebuilt from them after every change
+    private final Map<String, Set<String>> citiesByRoute = new HashMap<>();
+    private final Map<String, Integer> routeCounts = new HashMap<>();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadAll() {
+        try {
+            citiesByRoute.clear();
+            routeCounts.clear();
+            for (Route route : routeRepository.findWithStopsByIsActiveTrue()) {
+                addRoute(route.getRouteId(), citiesOf(route, route.getStops()));
+            }
+            snapshot = Snapshot.of(routeCounts);
+            log.info("City index loaded with {} cities from {} routes", snapshot.cities.length, citiesByRoute.size());
+        } catch (Exception e) {
+            log.error("Failed to load city index: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRouteChanged(RouteChangedEvent event) {
+        String routeId = event.getRouteId();
+        Set<String> cities = null;
+        if (event.getChangeType() != RouteChangeType.ROUTE_DELETED) {
+            // Stops are queried directly instead of through Route.stops, which may still be the
+            // uninitialized collection of the instance saved earlier in this persistence context
+            cities = routeRepository.findById(routeId)
+                    .filter(route -> Boolean.TRUE.equals(route.getIsActive()))
+                    .map(route -> citiesOf(route,
+                            routeStopRepository.findByRouteRouteIdAndIsActiveTrueOrderByStopSequence(routeId)))
+                    .orElse(null);
+        }
+
+        boolean removed = removeRoute(routeId);
+        if (cities != null) {
+            addRoute(routeId, cities);
+        } else if (!removed) {
+            return;
+        }
+        snapshot = Snapshot.of(routeCounts);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRoutesChanged(RouteBatchChangedEvent event) {
+        Set<String> routeIds = new HashSet<>();
+        for (RouteChangedEvent change : event.getChanges()) {
+            routeIds.add(change.getRouteId());
+        }
+
+        routeIds.forEach(this::removeRoute);
+        for (Route route : routeRepository.findWithStopsByRouteIdInOrderByRouteId(routeIds)) {
+            if (Boolean.TRUE.equals(route.getIsActive())) {
+                addRoute(route.getRouteId(), citiesOf(route, route.getStops()));
+            }
+        }
+        snapshot = Snapshot.of(routeCounts);
+    }
+
+    /**
+     * Cities whose normalized name starts with {@code prefix}, most served first and
+     * alphabetically among equals.
+     */
+    public List<CitySuggestionDTO> suggest(String prefix, int limit) {
+        String key = CityNames.normalize(prefix);
+        if (key == null || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot s = snapshot;
+        int from = lowerBound(s.cities, key);
+        int to = lowerBound(s.cities, key + Character.MAX_VALUE);
+
+        // Keep the best "limit" positions in order; cities are visited alphabetically, so an
+        // equal count never displaces an earlier entry
+        int[] best = new int[Math.min(Math.min(limit, MAX_SUGGESTIONS), to - from)];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            int count = s.routeCounts[i];
+            if (size == best.length && count <= s.routeCounts[best[size - 1]]) {
+                continue;
+            }
+            int j = size < best.length ? size++ : size - 1;
+            while (j > 0 && s.routeCounts[best[j - 1]] < count) {
+                best[j] = best[j - 1];
+                j--;
+            }
+            best[j] = i;
+        }
+
+        List<CitySuggestionDTO> suggestions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            suggestions.add(new CitySuggestionDTO(s.cities[best[i]], s.routeCounts[best[i]]));
+        }
+        return suggestions;
+    }
+
+    private void addRoute(String routeId, Set<String> cities) {
+        citiesByRoute.put(routeId, cities);
+        for (String city : cities) {
+            routeCounts.merge(city, 1, Integer::sum);
+        }
+    }
+
+    private boolean removeRoute(String routeId) {
+        Set<String> cities = citiesByRoute.remove(routeId);
+        if (cities == null) {
+            return false;
+        }
+        for (String city : cities) {
+            routeCounts.computeIfPresent(city, (name, count) -> count > 1 ? count - 1 : null);
+        }
+        return true;
+    }
+
+    private static Set<String> citiesOf(Route route, List<RouteStop> stops) {
+        Set<String> cities = new HashSet<>();
+        addCity(cities, route.getOriginCity());
+        addCity(cities, route.getDestinationCity());
+        if (stops != null) {
+            for (RouteStop stop : stops) {
+                if (Boolean.TRUE.equals(stop.getIsActive())) {
+                    addCity(cities, stop.getCityName());
+                }
+            }
+        }
+        return cities;
+    }
+
+    private static void addCity(Set<String> cities, String cityName) {
+        String city = CityNames.normalize(cityName);
+        if (city != null && !city.isEmpty()) {
+            cities.add(city);
+        }
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /** Immutable sorted city names with the route count at the same position. */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new String[0], new int[0]);
+
+        final String[] cities;
+        final int[] routeCounts;
+
+        private Snapshot(String[] cities, int[] routeCounts) {
+            this.cities = cities;
+            this.routeCounts = routeCounts;
+        }
+
+        static Snapshot of(Map<String, Integer> counts) {
+            String[] cities = counts.keySet().toArray(new String[0]);
+            Arrays.sort(cities);
+            int[] routeCounts = new int[cities.length];
+            for (int i = 0; i < cities.length; i++) {
+                routeCounts[i] = counts.get(cities[i]);
+            }
+            return new Snapshot(cities, routeCounts);
+        }
+    }
+}
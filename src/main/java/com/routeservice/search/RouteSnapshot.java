@@ -0,0 +1,482 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteSearchResponseDTO;
+import com.routeservice.dto.RouteStopDTO;
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+import com.routeservice.repository.projection.RouteVersionView;
+import com.routeservice.util.CityNames;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the whole route catalog (active and inactive routes, all their stops) laid
+ * out in parallel arrays, with every city name interned to an int ID and a hash index from
+ * (origin, destination) to the routes of the pair. Built once and never modified, so any number
+ * of threads read it without locking.
+ *
+ * <p>Decimals are kept as hundredths (the scale of the columns) and timestamps as epoch
+ * microseconds of the stored wall-clock time; {@link #NULL} stands for a missing value. Routes are
+ * ordered by routeId and stops by stop sequence, the order of the database reads they replace.
+ */
+public final class RouteSnapshot {
+
+    public static final long NULL = Long.MIN_VALUE;
+
+    static final byte FALSE = 0;
+    static final byte TRUE = 1;
+    static final byte UNSET = -1;
+
+    private static final int SCALE = 2;
+    private static final double HUNDREDTHS = 100.0;
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    final long sequence;
+
+    final String[] cities;
+    final Map<String, Integer> cityIds;
+
+    final String[] routeIds;
+    final String[] routeNames;
+    final String[] routeDescriptions;
+    final int[] originCities;
+    final int[] destinationCities;
+    final long[] totalDistances;
+    final long[] estimatedDurations;
+    final byte[] routeActive;
+    final long[] createdAt;
+    final long[] updatedAt;
+    final long[] versions;
+
+    // Stops of route r are at stopStart[r] until stopStart[r + 1]
+    final int[] stopStart;
+    final String[] stopIds;
+    final int[] stopCities;
+    final int[] stopSequences;
+    final long[] stopDistances;
+    final long[] stopDurations;
+    final String[] stopTypes;
+    final byte[] stopActive;
+
+    // Open addressing over (origin key ID, destination key ID); a slot lists pairCount routes from pairFirst
+    private final long[] pairSlots;
+    private final int[] pairFirst;
+    private final int[] pairCount;
+    private final int[] pairRoutes;
+
+    RouteSnapshot(long sequence, String[] cities,
+                  String[] routeIds, String[] routeNames, String[] routeDescriptions,
+                  int[] originCities, int[] destinationCities, long[] totalDistances, long[] estimatedDurations,
+                  byte[] routeActive, long[] createdAt, long[] updatedAt, long[] versions,
+                  int[] stopStart, String[] stopIds, int[] stopCities, int[] stopSequences,
+                  long[] stopDistances, long[] stopDurations, String[] stopTypes, byte[] stopActive) {
+        this.sequence = sequence;
+        this.cities = cities;
+        this.routeIds = routeIds;
+        this.routeNames = routeNames;
+        this.routeDescriptions = routeDescriptions;
+        this.originCities = originCities;
+        this.destinationCities = destinationCities;
+        this.totalDistances = totalDistances;
+        this.estimatedDurations = estimatedDurations;
+        this.routeActive = routeActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.versions = versions;
+        this.stopStart = stopStart;
+        this.stopIds = stopIds;
+        this.stopCities = stopCities;
+        this.stopSequences = stopSequences;
+        this.stopDistances = stopDistances;
+        this.stopDurations = stopDurations;
+        this.stopTypes = stopTypes;
+        this.stopActive = stopActive;
+
+        this.cityIds = new HashMap<>(cities.length * 2);
+        for (int i = 0; i < cities.length; i++) {
+            cityIds.put(cities[i], i);
+        }
+
+        // Pairs are indexed by normalized name; stored names are normally normalized already
+        int routeCount = routeIds.length;
+        int[] originKeys = new int[routeCount];
+        int[] destinationKeys = new int[routeCount];
+        for (int r = 0; r < routeCount; r++) {
+            originKeys[r] = cityIds.getOrDefault(CityNames.normalize(cities[originCities[r]]), -1);
+            destinationKeys[r] = cityIds.getOrDefault(CityNames.normalize(cities[destinationCities[r]]), -1);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(routeCount, 1) * 2 + 1) << 1;
+        this.pairSlots = new long[capacity];
+        this.pairFirst = new int[capacity];
+        this.pairCount = new int[capacity];
+        Arrays.fill(pairSlots, NULL);
+        for (int r = 0; r < routeCount; r++) {
+            if (originKeys[r] >= 0 && destinationKeys[r] >= 0) {
+                pairCount[slotFor(pair(originKeys[r], destinationKeys[r]), true)]++;
+            }
+        }
+        int next = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            pairFirst[slot] = next;
+            next += pairCount[slot];
+        }
+        this.pairRoutes = new int[next];
+        int[] filled = new int[capacity];
+        for (int r = 0; r < routeCount; r++) {
+            if (originKeys[r] >= 0 && destinationKeys[r] >= 0) {
+                int slot = slotFor(pair(originKeys[r], destinationKeys[r]), false);
+                pairRoutes[pairFirst[slot] + filled[slot]++] = r;
+            }
+        }
+    }
+
+    /**
+     * Snapshot of {@code routes} (with their stops loaded), which reflect at least every change
+     * up to change log sequence {@code sequence}.
+     */
+    public static RouteSnapshot of(List<Route> routes, long sequence) {
+        List<RouteDTO> dtos = new ArrayList<>(routes.size());
+        for (Route route : routes) {
+            dtos.add(toRouteDTO(route));
+        }
+        return ofRoutes(dtos, sequence);
+    }
+
+    /**
+     * This snapshot with the routes in {@code changes} replaced by the given state, or removed
+     * where it is null, as of change log sequence {@code sequence}.
+     */
+    public RouteSnapshot apply(Map<String, RouteDTO> changes, long sequence) {
+        List<RouteDTO> routes = new ArrayList<>(routeIds.length + changes.size());
+        for (int r = 0; r < routeIds.length; r++) {
+            if (!changes.containsKey(routeIds[r])) {
+                routes.add(route(r));
+            }
+        }
+        for (RouteDTO route : changes.values()) {
+            if (route != null) {
+                routes.add(route);
+            }
+        }
+        return ofRoutes(routes, sequence);
+    }
+
+    static RouteSnapshot ofRoutes(List<RouteDTO> routes, long sequence) {
+        List<RouteDTO> sorted = new ArrayList<>(routes);
+        sorted.sort(Comparator.comparing(RouteDTO::getRouteId));
+
+        Map<String, Integer> cityIds = new HashMap<>();
+        List<String> cities = new ArrayList<>();
+        int routeCount = sorted.size();
+        int stopCount = 0;
+        for (RouteDTO route : sorted) {
+            stopCount += route.getStops() != null ? route.getStops().size() : 0;
+        }
+
+        String[] routeIds = new String[routeCount];
+        String[] routeNames = new String[routeCount];
+        String[] routeDescriptions = new String[routeCount];
+        int[] originCities = new int[routeCount];
+        int[] destinationCities = new int[routeCount];
+        long[] totalDistances = new long[routeCount];
+        long[] estimatedDurations = new long[routeCount];
+        byte[] routeActive = new byte[routeCount];
+        long[] createdAt = new long[routeCount];
+        long[] updatedAt = new long[routeCount];
+        long[] versions = new long[routeCount];
+        int[] stopStart = new int[routeCount + 1];
+        String[] stopIds = new String[stopCount];
+        int[] stopCities = new int[stopCount];
+        int[] stopSequences = new int[stopCount];
+        long[] stopDistances = new long[stopCount];
+        long[] stopDurations = new long[stopCount];
+        String[] stopTypes = new String[stopCount];
+        byte[] stopActive = new byte[stopCount];
+
+        int s = 0;
+        for (int r = 0; r < routeCount; r++) {
+            RouteDTO route = sorted.get(r);
+            routeIds[r] = route.getRouteId();
+            routeNames[r] = route.getRouteName();
+            routeDescriptions[r] = route.getRouteDescription();
+            originCities[r] = intern(route.getOriginCity(), cityIds, cities);
+            destinationCities[r] = intern(route.getDestinationCity(), cityIds, cities);
+            intern(CityNames.normalize(route.getOriginCity()), cityIds, cities);
+            intern(CityNames.normalize(route.getDestinationCity()), cityIds, cities);
+            totalDistances[r] = hundredths(route.getTotalDistance());
+            estimatedDurations[r] = hundredths(route.getEstimatedDuration());
+            routeActive[r] = flag(route.getIsActive());
+            createdAt[r] = micros(route.getCreatedAt());
+            updatedAt[r] = micros(route.getUpdatedAt());
+            versions[r] = route.getVersion() != null ? route.getVersion() : 0;
+
+            stopStart[r] = s;
+            if (route.getStops() != null) {
+                List<RouteStopDTO> stops = new ArrayList<>(route.getStops());
+                stops.sort(Comparator.comparing(RouteStopDTO::getStopSequence).thenComparing(RouteStopDTO::getStopId));
+                for (RouteStopDTO stop : stops) {
+                    stopIds[s] = stop.getStopId();
+                    stopCities[s] = intern(stop.getCityName(), cityIds, cities);
+                    stopSequences[s] = stop.getStopSequence();
+                    stopDistances[s] = hundredths(stop.getDistanceFromOrigin());
+                    stopDurations[s] = hundredths(stop.getEstimatedStopDuration());
+                    stopTypes[s] = stop.getStopType() != null ? stop.getStopType().intern() : null;
+                    stopActive[s] = flag(stop.getIsActive());
+                    s++;
+                }
+            }
+        }
+        stopStart[routeCount] = s;
+
+        return new RouteSnapshot(sequence, cities.toArray(new String[0]),
+                routeIds, routeNames, routeDescriptions, originCities, destinationCities,
+                totalDistances, estimatedDurations, routeActive, createdAt, updatedAt, versions,
+                stopStart, stopIds, stopCities, stopSequences, stopDistances, stopDurations, stopTypes, stopActive);
+    }
+
+    /** Change log sequence up to which this snapshot reflects every change (it may reflect later ones). */
+    public long sequence() {
+        return sequence;
+    }
+
+    public int routeCount() {
+        return routeIds.length;
+    }
+
+    /** Active routes between the cities as search responses, without trips. */
+    public List<RouteSearchResponseDTO> search(String originCity, String destinationCity) {
+        int slot = lookup(originCity, destinationCity);
+        if (slot < 0) {
+            return List.of();
+        }
+        List<RouteSearchResponseDTO> responses = new ArrayList<>(pairCount[slot]);
+        for (int i = pairFirst[slot], end = i + pairCount[slot]; i < end; i++) {
+            int r = pairRoutes[i];
+            if (routeActive[r] != TRUE) {
+                continue;
+            }
+            List<String> intermediateStops = new ArrayList<>(stopStart[r + 1] - stopStart[r]);
+            for (int s = stopStart[r]; s < stopStart[r + 1]; s++) {
+                if (stopActive[s] == TRUE) {
+                    intermediateStops.add(cities[stopCities[s]]);
+                }
+            }
+            responses.add(RouteSearchResponseDTO.builder()
+                    .routeId(routeIds[r])
+                    .routeName(routeNames[r])
+                    .originCity(cities[originCities[r]])
+                    .destinationCity(cities[destinationCities[r]])
+                    .totalDistance(totalDistances[r] != NULL ? totalDistances[r] / HUNDREDTHS : 0.0)
+                    .estimatedDuration(estimatedDurations[r] != NULL ? estimatedDurations[r] / HUNDREDTHS : 0.0)
+                    .intermediateStops(intermediateStops)
+                    .availableTripsCount(0)
+                    .availableTrips(List.of())
+                    .build());
+        }
+        return responses;
+    }
+
+    /** Whether any route, active or not, runs between the cities. */
+    public boolean exists(String originCity, String destinationCity) {
+        return lookup(originCity, destinationCity) >= 0;
+    }
+
+    /** The first active route between the cities, else the first one; null when there is none. */
+    public RouteDTO details(String originCity, String destinationCity) {
+        int slot = lookup(originCity, destinationCity);
+        if (slot < 0) {
+            return null;
+        }
+        int first = pairRoutes[pairFirst[slot]];
+        for (int i = pairFirst[slot], end = i + pairCount[slot]; i < end; i++) {
+            if (routeActive[pairRoutes[i]] == TRUE) {
+                return route(pairRoutes[i]);
+            }
+        }
+        return route(first);
+    }
+
+    /** Versions of every route between the cities, in routeId order. */
+    public List<RouteVersionView> versions(String originCity, String destinationCity) {
+        int slot = lookup(originCity, destinationCity);
+        if (slot < 0) {
+            return List.of();
+        }
+        List<RouteVersionView> views = new ArrayList<>(pairCount[slot]);
+        for (int i = pairFirst[slot], end = i + pairCount[slot]; i < end; i++) {
+            int r = pairRoutes[i];
+            views.add(new Version(routeIds[r], versions[r], dateTime(createdAt[r]), dateTime(updatedAt[r])));
+        }
+        return views;
+    }
+
+    private RouteDTO route(int r) {
+        List<RouteStopDTO> stops = new ArrayList<>(stopStart[r + 1] - stopStart[r]);
+        for (int s = stopStart[r]; s < stopStart[r + 1]; s++) {
+            stops.add(RouteStopDTO.builder()
+                    .stopId(stopIds[s])
+                    .routeId(routeIds[r])
+                    .cityName(cities[stopCities[s]])
+                    .stopSequence(stopSequences[s])
+                    .distanceFromOrigin(decimal(stopDistances[s]))
+                    .estimatedStopDuration(decimal(stopDurations[s]))
+                    .stopType(stopTypes[s])
+                    .isActive(bool(stopActive[s]))
+                    .build());
+        }
+        return RouteDTO.builder()
+                .routeId(routeIds[r])
+                .routeName(routeNames[r])
+                .originCity(cities[originCities[r]])
+                .destinationCity(cities[destinationCities[r]])
+                .totalDistance(decimal(totalDistances[r]))
+                .estimatedDuration(decimal(estimatedDurations[r]))
+                .routeDescription(routeDescriptions[r])
+                .isActive(bool(routeActive[r]))
+                .stops(stops)
+                .createdAt(dateTime(createdAt[r]))
+                .updatedAt(dateTime(updatedAt[r]))
+                .version(versions[r])
+                .build();
+    }
+
+    private static RouteDTO toRouteDTO(Route route) {
+        List<RouteStopDTO> stops = new ArrayList<>();
+        if (route.getStops() != null) {
+            for (RouteStop stop : route.getStops()) {
+                stops.add(RouteStopDTO.builder()
+                        .stopId(stop.getStopId())
+                        .routeId(route.getRouteId())
+                        .cityName(stop.getCityName())
+                        .stopSequence(stop.getStopSequence())
+                        .distanceFromOrigin(stop.getDistanceFromOrigin())
+                        .estimatedStopDuration(stop.getEstimatedStopDuration())
+                        .stopType(stop.getStopType())
+                        .isActive(stop.getIsActive())
+                        .build());
+            }
+        }
+        return RouteDTO.builder()
+                .routeId(route.getRouteId())
+                .routeName(route.getRouteName())
+                .originCity(route.getOriginCity())
+                .destinationCity(route.getDestinationCity())
+                .totalDistance(route.getTotalDistance())
+                .estimatedDuration(route.getEstimatedDuration())
+                .routeDescription(route.getRouteDescription())
+                .isActive(route.getIsActive())
+                .stops(stops)
+                .createdAt(route.getCreatedAt())
+                .updatedAt(route.getUpdatedAt())
+                .version(route.getVersion())
+                .build();
+    }
+
+    private int lookup(String originCity, String destinationCity) {
+        Integer origin = cityIds.get(CityNames.normalize(originCity));
+        Integer destination = cityIds.get(CityNames.normalize(destinationCity));
+        if (origin == null || destination == null) {
+            return -1;
+        }
+        long key = pair(origin, destination);
+        int mask = pairSlots.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (pairSlots[slot] == key) {
+                return slot;
+            }
+            if (pairSlots[slot] == NULL) {
+                return -1;
+            }
+        }
+    }
+
+    private int slotFor(long key, boolean claim) {
+        int mask = pairSlots.length - 1;
+        int slot = hash(key) & mask;
+        while (pairSlots[slot] != key) {
+            if (pairSlots[slot] == NULL && claim) {
+                pairSlots[slot] = key;
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long pair(int origin, int destination) {
+        return ((long) origin << 32) | (destination & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int intern(String city, Map<String, Integer> cityIds, List<String> cities) {
+        String name = city != null ? city : "";
+        return cityIds.computeIfAbsent(name, key -> {
+            cities.add(key);
+            return cities.size() - 1;
+        });
+    }
+
+    static long hundredths(BigDecimal value) {
+        return value != null ? value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact() : NULL;
+    }
+
+    static BigDecimal decimal(long hundredths) {
+        return hundredths != NULL ? BigDecimal.valueOf(hundredths, SCALE) : null;
+    }
+
+    static long micros(LocalDateTime dateTime) {
+        return dateTime != null ? ChronoUnit.MICROS.between(EPOCH, dateTime) : NULL;
+    }
+
+    static LocalDateTime dateTime(long micros) {
+        return micros != NULL ? EPOCH.plus(micros, ChronoUnit.MICROS) : null;
+    }
+
+    static byte flag(Boolean value) {
+        return value == null ? UNSET : value ? TRUE : FALSE;
+    }
+
+    static Boolean bool(byte flag) {
+        return flag == UNSET ? null : flag == TRUE;
+    }
+
+    private record Version(String routeId, long version, LocalDateTime createdAt, LocalDateTime updatedAt)
+            implements RouteVersionView {
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.routeservice.search;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file format of a {@link RouteSnapshot}, so a restarted node can serve lookups before it
+ * has read the catalog from the database.
+ *
+ * <p>Layout (big-endian): magic, format version, change log sequence, the city table, then every
+ * array of the snapshot as a count followed by its values, and a CRC32 of everything before it.
+ * Strings are a byte length (-1 for null) and UTF-8 bytes. Files are written next to the target
+ * and moved into place, so a reader only ever sees a complete file, and one damaged later (e.g.
+ * by a crash before it reached the disk) fails its checksum. Reading maps the file and decodes it
+ * in one pass.
+ */
+public final class RouteSnapshotFile {
+
+    private static final int MAGIC = 0x52534E50; // "RSNP"
+    private static final int FORMAT_VERSION = 1;
+
+    private RouteSnapshotFile() {
+    }
+
+    public static void write(RouteSnapshot snapshot, Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream fileOut = Files.newOutputStream(temp);
+                 CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOut, 65536), crc);
+                 DataOutputStream out = new DataOutputStream(checked)) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(snapshot.sequence);
+                writeStrings(out, snapshot.cities);
+
+                writeStrings(out, snapshot.routeIds);
+                writeStrings(out, snapshot.routeNames);
+                writeStrings(out, snapshot.routeDescriptions);
+                writeInts(out, snapshot.originCities);
+                writeInts(out, snapshot.destinationCities);
+                writeLongs(out, snapshot.totalDistances);
+                writeLongs(out, snapshot.estimatedDurations);
+                writeBytes(out, snapshot.routeActive);
+                writeLongs(out, snapshot.createdAt);
+                writeLongs(out, snapshot.updatedAt);
+                writeLongs(out, snapshot.versions);
+
+                writeInts(out, snapshot.stopStart);
+                writeStrings(out, snapshot.stopIds);
+                writeInts(out, snapshot.stopCities);
+                writeInts(out, snapshot.stopSequences);
+                writeLongs(out, snapshot.stopDistances);
+                writeLongs(out, snapshot.stopDurations);
+                writeStrings(out, snapshot.stopTypes);
+                writeBytes(out, snapshot.stopActive);
+
+                out.flush();
+                // The checksum covers the bytes above; written past the checked stream
+                new DataOutputStream(fileOut).writeLong(crc.getValue());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}.
+     *
+     * @throws IOException when the file cannot be read, is of another format, or is damaged
+     */
+    public static RouteSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Long.BYTES + 2 * Integer.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a route snapshot file: " + size + " bytes");
+            }
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            crc.update(in.slice(0, (int) size - Long.BYTES));
+            if (crc.getValue() != in.getLong((int) size - Long.BYTES)) {
+                throw new IOException("Route snapshot file is damaged (checksum mismatch)");
+            }
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a route snapshot file");
+            }
+            int format = in.getInt();
+            if (format != FORMAT_VERSION) {
+                throw new IOException("Unsupported route snapshot format " + format);
+            }
+
+            try {
+                long sequence = in.getLong();
+                String[] cities = readStrings(in, true);
+                return new RouteSnapshot(sequence, cities,
+                        readStrings(in, false), readStrings(in, false), readStrings(in, false),
+                        readInts(in), readInts(in), readLongs(in), readLongs(in), readBytes(in),
+                        readLongs(in), readLongs(in), readLongs(in),
+                        readInts(in), readStrings(in, false), readInts(in), readInts(in),
+                        readLongs(in), readLongs(in), readStrings(in, true), readBytes(in));
+            } catch (RuntimeException e) {
+                throw new IOException("Route snapshot file is damaged: " + e, e);
+            }
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            if (value == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] values) throws IOException {
+        out.writeInt(values.length);
+        out.write(values);
+    }
+
+    // Interned where the values repeat a lot (city names, stop types), as in a freshly built snapshot
+    private static String[] readStrings(ByteBuffer in, boolean intern) {
+        String[] values = new String[in.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            int length = in.getInt();
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                in.get(bytes);
+                String value = new String(bytes, StandardCharsets.UTF_8);
+                values[i] = intern ? value.intern() : value;
+            }
+        }
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer in) {
+        int[] values = new int[in.getInt()];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    private static long[] readLongs(ByteBuffer in) {
+        long[] values = new long[in.getInt()];
+        in.asLongBuffer().get(values);
+        in.position(in.position() + values.length * Long.BYTES);
+        return values;
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] values = new byte[in.getInt()];
+        in.get(values);
+        return values;
+    }
+}
@@ -0,0 +1,264 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.RouteChangeBatchDTO;
+import com.routeservice.dto.RouteChangeDTO;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.service.RouteChangeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the current {@link RouteSnapshot} and rebuilds it in the background, one build at a
+ * time, whenever the catalog changes. A new snapshot is swapped in with a single volatile write.
+ *
+ * <p>Freshness: {@link #current()} only hands out a snapshot built after every route change
+ * committed on this node so far; until the rebuild after a change is published it returns null
+ * and callers read from the database instead. Changes committed by other nodes are noticed by
+ * comparing the change log sequence every {@code route.snapshot.refresh-interval}.
+ *
+ * <p>Rebuilds catch up from the change log (see RouteChangeService) when they can, and read the
+ * whole catalog only without a snapshot to start from or when the log has been compacted past
+ * it. With {@code route.snapshot.file} set, every new snapshot is also written to that file and
+ * read back at startup, so a restarted node serves searches before its first database read. A
+ * file is only used when the database's change log has not moved more than
+ * {@code route.snapshot.file.max-changes-behind} past it, and only for searches: exists and
+ * details keep to the database until the changes in between have been caught up in the background.
+ */
+@Component
+@Slf4j
+public class RouteSnapshotIndex {
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RouteChangeService routeChangeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Bumped after every committed change; a snapshot is fresh while it was built at the current count
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "route-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Published published;
+
+    private final Counter snapshotReads;
+    private final Counter databaseReads;
+
+    private final Path file;
+    private final long fileMaxChangesBehind;
+
+    public RouteSnapshotIndex(MeterRegistry meterRegistry,
+                              @Value("${route.snapshot.file:}") String file,
+                              @Value("${route.snapshot.file.max-changes-behind:100}") long fileMaxChangesBehind) {
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.fileMaxChangesBehind = fileMaxChangesBehind;
+        this.snapshotReads = Counter.builder("route.snapshot.reads")
+                .description("Route lookups answered by the in-memory snapshot or, while it is stale, the database")
+                .tag("source", "snapshot")
+                .register(meterRegistry);
+        this.databaseReads = Counter.builder("route.snapshot.reads")
+                .description("Route lookups answered by the in-memory snapshot or, while it is stale, the database")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The snapshot if it reflects every change committed on this node and has caught up with the
+     * database at least once, else null (and a rebuild is under way).
+     */
+    public RouteSnapshot current() {
+        Published p = published;
+        if (p != null && p.caughtUp && p.changes == changes.get()) {
+            snapshotReads.increment();
+            return p.snapshot;
+        }
+        databaseReads.increment();
+        scheduleRebuild(); // a no-op while one is pending; restarts building after a failed attempt
+        return null;
+    }
+
+    /**
+     * Like {@link #current()}, but also hands out a snapshot read from the file at startup before
+     * it has caught up, which is at most {@code route.snapshot.file.max-changes-behind} changes old.
+     */
+    public RouteSnapshot currentForSearch() {
+        Published p = published;
+        if (p != null && p.changes == changes.get()) {
+            snapshotReads.increment();
+            return p.snapshot;
+        }
+        databaseReads.increment();
+        scheduleRebuild(); // a no-op while one is pending; restarts building after a failed attempt
+        return null;
+    }
+
+    // Before the web server starts, so the first requests already find it
+    @PostConstruct
+    public void loadFile() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            RouteSnapshot snapshot = RouteSnapshotFile.read(file);
+            long latest = routeChangeService.getLatestSequence();
+            if (snapshot.sequence() > latest) {
+                log.warn("Ignoring route snapshot file {}: it is at change {} but the database only at {}",
+                        file, snapshot.sequence(), latest);
+            } else if (latest - snapshot.sequence() > fileMaxChangesBehind) {
+                log.warn("Ignoring route snapshot file {}: {} changes behind the database", file,
+                        latest - snapshot.sequence());
+            } else {
+                published = new Published(snapshot, changes.get(), false);
+                log.info("Route snapshot loaded from {} with {} routes at change {} ({} behind) in {} ms", file,
+                        snapshot.routeCount(), snapshot.sequence(), latest - snapshot.sequence(),
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring route snapshot file {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Builds the first snapshot, or brings the one from the file up to date
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        changes.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoutesChanged(RouteBatchChangedEvent event) {
+        changes.incrementAndGet();
+        scheduleRebuild();
+    }
+
+    // Changes made through other nodes
+    @Scheduled(fixedDelayString = "${route.snapshot.refresh-interval:5s}",
+            initialDelayString = "${route.snapshot.refresh-interval:5s}")
+    public void checkForRemoteChanges() {
+        Published p = published;
+        if (p != null && routeChangeService.getLatestSequence() > p.snapshot.sequence()) {
+            changes.incrementAndGet();
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            builder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        long built = -1;
+        try {
+            // Read-write so it runs on the primary: a replica could still be behind the change
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            long seen;
+            do {
+                seen = changes.get();
+                long start = System.nanoTime();
+                Published previous = published;
+                RouteSnapshot snapshot = transaction.execute(status -> {
+                    RouteSnapshot caughtUp = previous != null ? catchUp(previous.snapshot) : null;
+                    if (caughtUp != null) {
+                        return caughtUp;
+                    }
+                    // Sequence first: the routes read afterwards include at least every change up to it
+                    long sequence = routeChangeService.getLatestSequence();
+                    return RouteSnapshot.of(routeRepository.findAllWithStops(), sequence);
+                });
+                published = new Published(snapshot, seen, true);
+                built = seen;
+                log.debug("Route snapshot rebuilt with {} routes up to change {} in {} ms",
+                        snapshot.routeCount(), snapshot.sequence(), (System.nanoTime() - start) / 1_000_000);
+                if (previous == null || snapshot != previous.snapshot) {
+                    writeFile(snapshot);
+                }
+            } while (changes.get() != seen);
+        } catch (RuntimeException e) {
+            log.error("Failed to build route snapshot, lookups stay on the database: {}", e.getMessage());
+        } finally {
+            rebuildScheduled.set(false);
+        }
+        // A change that arrived after the last check found the rebuild still flagged as scheduled
+        if (built >= 0 && changes.get() != built) {
+            scheduleRebuild();
+        }
+    }
+
+    // Applies the changes logged since the snapshot; null when the log no longer has all of them
+    private RouteSnapshot catchUp(RouteSnapshot snapshot) {
+        Map<String, RouteDTO> changed = new HashMap<>();
+        long since = snapshot.sequence();
+        RouteChangeBatchDTO batch;
+        do {
+            batch = routeChangeService.getChanges(since, null);
+            if (Boolean.TRUE.equals(batch.getResyncRequired())) {
+                return null;
+            }
+            for (RouteChangeDTO change : batch.getChanges()) {
+                changed.put(change.getRouteId(), change.getRoute());
+            }
+            since = batch.getNextSince();
+        } while (Boolean.TRUE.equals(batch.getHasMore()));
+
+        return since == snapshot.sequence() ? snapshot : snapshot.apply(changed, since);
+    }
+
+    private void writeFile(RouteSnapshot snapshot) {
+        if (file == null) {
+            return;
+        }
+        try {
+            RouteSnapshotFile.write(snapshot, file);
+        } catch (IOException e) {
+            log.warn("Failed to write route snapshot file {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    private record Published(RouteSnapshot snapshot, long changes, boolean caughtUp) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.TripDTO;
+import com.routeservice.util.CityNames;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assigns each trip returned by bus-service to the matched routes, in one pass.
+ * A trip goes to the route named by its routeId if bus-service sent one (see TripDTO.routeId).
+ * Without it a trip goes to the route with the same origin and destination when that route is
+ * the only one serving the pair. With several of them the pair says nothing about which one runs
+ * the trip, so it is listed on every route of the pair and those routes are flagged as showing
+ * pair-level trips. Trips matching no route are dropped instead of being attached to every route.
+ */
+public final class TripIndex {
+
+    private TripIndex() {
+    }
+
+    /**
+     * The trips shown on one route. {@code pairLevel} is set when they include trips bus-service
+     * did not tie to a route, which every route serving the same city pair shows as well.
+     */
+    public record RouteTrips(List<TripDTO> trips, boolean pairLevel) {
+
+        public static final RouteTrips NONE = new RouteTrips(List.of(), false);
+    }
+
+    public static Map<String, RouteTrips> partition(List<RouteDTO> routes, List<TripDTO> trips) {
+        Map<String, List<TripDTO>> tripsByRoute = new HashMap<>(routes.size() * 2);
+        Map<String, List<TripDTO>> tripsByPair = new HashMap<>(routes.size() * 2);
+        Map<String, List<String>> routesByPair = new HashMap<>(routes.size() * 2);
+
+        for (RouteDTO route : routes) {
+            List<TripDTO> routeTrips = new ArrayList<>();
+            tripsByRoute.put(route.getRouteId(), routeTrips);
+            String pair = pairKey(route.getOriginCity(), route.getDestinationCity());
+            routesByPair.computeIfAbsent(pair, key -> new ArrayList<>(1)).add(route.getRouteId());
+            tripsByPair.putIfAbsent(pair, routeTrips);
+        }
+        // A shared pair collects its trips on its own, to be listed on every route of the pair
+        routesByPair.forEach((pair, routeIds) -> {
+            if (routeIds.size() > 1) {
+                tripsByPair.put(pair, new ArrayList<>());
+            }
+        });
+
+        if (!routes.isEmpty()) {
+            for (TripDTO trip : trips) {
+                List<TripDTO> target = trip.getRouteId() != null ? tripsByRoute.get(trip.getRouteId()) : null;
+                if (target == null) {
+                    target = tripsByPair.get(pairKey(trip.getOriginCity(), trip.getDestinationCity()));
+                }
+                if (target != null) {
+                    target.add(trip);
+                }
+            }
+        }
+
+        Map<String, RouteTrips> result = new HashMap<>(routes.size() * 2);
+        routesByPair.forEach((pair, routeIds) -> {
+            List<TripDTO> pairTrips = routeIds.size() > 1 ? tripsByPair.get(pair) : List.of();
+            for (String routeId : routeIds) {
+                List<TripDTO> routeTrips = tripsByRoute.get(routeId);
+                if (pairTrips.isEmpty()) {
+                    result.put(routeId, new RouteTrips(routeTrips, false));
+                } else {
+                    List<TripDTO> shown = new ArrayList<>(routeTrips.size() + pairTrips.size());
+                    shown.addAll(routeTrips);
+                    shown.addAll(pairTrips);
+                    result.put(routeId, new RouteTrips(shown, true));
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The trips that belong to any of the routes, by routeId or city pair, each counted once
+     * however many routes {@link #partition} lists it on.
+     */
+    public static List<TripDTO> matching(List<RouteDTO> routes, List<TripDTO> trips) {
+        Set<String> routeIds = new HashSet<>(routes.size() * 2);
+        Set<String> pairs = new HashSet<>(routes.size() * 2);
+        for (RouteDTO route : routes) {
+            routeIds.add(route.getRouteId());
+            pairs.add(pairKey(route.getOriginCity(), route.getDestinationCity()));
+        }
+
+        List<TripDTO> matching = new ArrayList<>(trips.size());
+        for (TripDTO trip : trips) {
+            if (routeIds.contains(trip.getRouteId()) || pairs.contains(pairKey(trip.getOriginCity(), trip.getDestinationCity()))) {
+                matching.add(trip);
+            }
+        }
+        return matching;
+    }
+
+    private static String pairKey(String originCity, String destinationCity) {
+        return CityNames.normalize(originCity) + "->" + CityNames.normalize(destinationCity);
+    }
+}
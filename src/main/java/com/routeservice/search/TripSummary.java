@@ -0,0 +1,85 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.RouteSearchResponseDTO;
+import com.routeservice.dto.TripDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fare, departure and seat summary of a trip list, computed in a single pass without streams.
+ * Trips with missing values are skipped for that value only.
+ */
+public final class TripSummary {
+
+    private int tripCount;
+    private BigDecimal lowestFare;
+    private BigDecimal highestFare;
+    private LocalDateTime earliestDeparture;
+    private LocalDateTime latestDeparture;
+    private int totalAvailableSeats;
+
+    private TripSummary() {
+    }
+
+    public static TripSummary of(List<TripDTO> trips) {
+        TripSummary summary = new TripSummary();
+        for (int i = 0, n = trips.size(); i < n; i++) {
+            summary.add(trips.get(i));
+        }
+        return summary;
+    }
+
+    private void add(TripDTO trip) {
+        tripCount++;
+
+        BigDecimal fare = trip.getBaseFareAmount();
+        if (fare != null) {
+            if (lowestFare == null || fare.compareTo(lowestFare) < 0) {
+                lowestFare = fare;
+            }
+            if (highestFare == null || fare.compareTo(highestFare) > 0) {
+                highestFare = fare;
+            }
+        }
+
+        LocalDateTime departure = trip.getDepartureDateTime();
+        if (departure != null) {
+            if (earliestDeparture == null || departure.isBefore(earliestDeparture)) {
+                earliestDeparture = departure;
+            }
+            if (latestDeparture == null || departure.isAfter(latestDeparture)) {
+                latestDeparture = departure;
+            }
+        }
+
+        Integer seats = trip.getAvailableSeats();
+        if (seats != null) {
+            totalAvailableSeats += seats;
+        }
+    }
+
+    public void applyTo(RouteSearchResponseDTO response) {
+        if (tripCount == 0) {
+            return;
+        }
+        response.setLowestFare(lowestFare != null ? lowestFare.doubleValue() : 0.0);
+        response.setHighestFare(highestFare != null ? highestFare.doubleValue() : 0.0);
+        response.setEarliestDeparture(earliestDeparture != null ? earliestDeparture.toString() : null);
+        response.setLatestDeparture(latestDeparture != null ? latestDeparture.toString() : null);
+        response.setTotalAvailableSeats(totalAvailableSeats);
+    }
+
+    public int getTripCount() {
+        return tripCount;
+    }
+
+    public BigDecimal getLowestFare() {
+        return lowestFare;
+    }
+
+    public int getTotalAvailableSeats() {
+        return totalAvailableSeats;
+    }
+}
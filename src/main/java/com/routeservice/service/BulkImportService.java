@@ -0,0 +1,15 @@
+package com.routeservice.service;
+
+import com.routeservice.dto.BulkImportResultDTO;
+
+import java.io.InputStream;
+
+public interface BulkImportService {
+
+    /**
+     * Imports routes with their stops from a stream of RouteDTO records, given either as
+     * newline-delimited JSON or as a single JSON array. Invalid or conflicting records are
+     * reported in the result and do not stop the rest of the import.
+     */
+    BulkImportResultDTO importRoutes(InputStream routes);
+}
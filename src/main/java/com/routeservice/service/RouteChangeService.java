@@ -0,0 +1,26 @@
+package com.routeservice.service;
+
+import com.routeservice.dto.RouteChangeBatchDTO;
+
+public interface RouteChangeService {
+
+    /**
+     * Changes with a sequence greater than {@code since}, oldest first, at most {@code limit} log
+     * entries per batch. Several changes to the same route in a batch are collapsed into its latest
+     * one, which carries the route's current state.
+     */
+    RouteChangeBatchDTO getChanges(long since, Integer limit);
+
+    /**
+     * Sequence of the newest change log entry, 0 when nothing has been recorded yet.
+     */
+    long getLatestSequence();
+
+    /**
+     * Removes log entries that a newer entry for the same route makes redundant, and deletes older
+     * than the tombstone retention.
+     *
+     * @return the number of entries removed
+     */
+    int compact();
+}
@@ -0,0 +1,14 @@
+package com.routeservice.service;
+
+import java.io.OutputStream;
+
+public interface RouteExportService {
+
+    /**
+     * Writes every route with routeId greater than {@code afterRouteId} (all routes when null) to
+     * {@code out} as newline-delimited JSON, one RouteDTO per line in routeId order.
+     *
+     * @return the number of routes written
+     */
+    long exportRoutes(String afterRouteId, OutputStream out);
+}
@@ -1,12 +1,23 @@
 package com.routeservice.service;
 
+import com.routeservice.dto.BatchSearchResultDTO;
+import com.routeservice.dto.CacheStatsDTO;
+import com.routeservice.dto.CitySuggestionDTO;
+import com.routeservice.dto.FareCalendarDTO;
+import com.routeservice.dto.JourneyDTO;
+import com.routeservice.dto.JourneyMetric;
+import com.routeservice.dto.PairFilterStatsDTO;
 import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RoutePageDTO;
 import com.routeservice.dto.RouteSearchRequestDTO;
 import com.routeservice.dto.RouteSearchResponseDTO;
 import com.routeservice.dto.RouteStopDTO;
+import com.routeservice.dto.RouteVersionDTO;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface RouteService {
 
@@ -21,6 +32,8 @@ public interface RouteService {
 
     List<RouteDTO> getActiveRoutes();
 
+    RoutePageDTO getRoutesPage(String after, Integer size, String originCity, String destinationCity, Boolean active);
+
     RouteDTO updateRoute(String routeId, RouteDTO routeDTO);
 
     void deleteRoute(String routeId);
@@ -34,6 +47,17 @@ public interface RouteService {
 
     List<RouteSearchResponseDTO> searchAvailableRoutes(String originCity, String destinationCity, LocalDate travelDate);
 
+    CompletableFuture<List<RouteSearchResponseDTO>> searchAvailableRoutesAsync(String originCity, String destinationCity, LocalDate travelDate);
+
+    CompletableFuture<FareCalendarDTO> getFareCalendar(String originCity, String destinationCity, LocalDate startDate, int days);
+
+    // One future per distinct (origin, destination, date); each completes independently and never fails
+    List<CompletableFuture<BatchSearchResultDTO>> searchRoutesBatch(List<RouteSearchRequestDTO> searchRequests);
+
+    List<JourneyDTO> searchJourneys(String originCity, String destinationCity, int maxTransfers, JourneyMetric metric);
+
+    List<CitySuggestionDTO> suggestCities(String prefix, int limit);
+
     // Route Stop Management
     RouteStopDTO addStopToRoute(String routeId, RouteStopDTO stopDTO);
 
@@ -47,4 +71,13 @@ public interface RouteService {
     boolean routeExists(String originCity, String destinationCity);
 
     RouteDTO getRouteDetails(String originCity, String destinationCity);
+
+    List<CacheStatsDTO> getCacheStats();
+
+    PairFilterStatsDTO getPairFilterStats();
+
+    // Conditional GETs; empty when there is no such route, so the regular lookup reports it
+    Optional<RouteVersionDTO> findRouteVersion(String routeId);
+
+    Optional<RouteVersionDTO> findRouteDetailsVersion(String originCity, String destinationCity);
 }
\ No newline at end of file
@@ -0,0 +1,353 @@
+package com.routeservice.service.impl;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.routeservice.dto.BulkImportErrorDTO;
+import com.routeservice.dto.BulkImportResultDTO;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteStopDTO;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.repository.projection.RouteKeyView;
+import com.routeservice.service.BulkImportService;
+import com.routeservice.util.CityNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk route import that bypasses the per-route JPA path: duplicates are checked per chunk with a
+ * single query, and routes and stops are written with JDBC batch inserts, one transaction per chunk.
+ * A chunk that fails as a whole is retried record by record so only the offending records fail.
+ */
+@Service
+@Slf4j
+public class BulkImportServiceImpl implements BulkImportService {
+
+    private static final String INSERT_ROUTE = "INSERT INTO route (route_id, route_name, origin_city, destination_city, " +
+            "total_distance, estimated_duration, route_description, is_active, created_at, updated_at, " +
+            "origin_city_key, destination_city_key, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_STOP = "INSERT INTO route_stop (stop_id, route_id, city_name, stop_sequence, " +
+            "distance_from_origin, estimated_stop_duration, stop_type, is_active, city_name_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${route.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public BulkImportResultDTO importRoutes(InputStream routes) {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+
+        List<PendingRoute> chunk = new ArrayList<>(chunkSize);
+        try (MappingIterator<RouteDTO> records = objectMapper.readerFor(RouteDTO.class).readValues(routes)) {
+            while (readNext(records, chunk, run)) {
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            stopReading(run, e);
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, run);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        log.info("Bulk import finished: {} received, {} imported, {} failed in {} ms",
+                run.received, run.imported, run.errors.size(), elapsedNanos / 1_000_000);
+
+        return BulkImportResultDTO.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .failed(run.errors.size())
+                .stopsImported(run.stopsImported)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .routesPerSecond(elapsedNanos > 0 ? run.imported * 1_000_000_000.0 / elapsedNanos : 0.0)
+                .errors(run.errors)
+                .build();
+    }
+
+    // False at the end of the stream, and at the first record that cannot be parsed
+    private boolean readNext(MappingIterator<RouteDTO> records, List<PendingRoute> chunk, ImportRun run) {
+        try {
+            if (!records.hasNextValue()) {
+                return false;
+            }
+            chunk.add(new PendingRoute(run.received, records.nextValue()));
+            run.received++;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            stopReading(run, e);
+            return false;
+        }
+    }
+
+    // The stream cannot be resynchronized after malformed JSON, so the rest of it is dropped
+    private void stopReading(ImportRun run, Exception e) {
+        log.error("Stopped reading bulk import at record {}: {}", run.received, e.getMessage());
+        run.errors.add(error(run.received, null, "Unreadable record, import stopped: " + e.getMessage()));
+    }
+
+    // Failures stay within the chunk: they are reported per record and the import goes on
+    private void importChunk(List<PendingRoute> chunk, ImportRun run) {
+        List<PendingRoute> valid = new ArrayList<>(chunk.size());
+        for (PendingRoute pending : chunk) {
+            String problem = validate(pending.route, run);
+            if (problem != null) {
+                run.errors.add(error(pending.index, pending.route.getRouteId(), problem));
+            } else {
+                valid.add(pending);
+            }
+        }
+
+        List<PendingRoute> insertable;
+        try {
+            insertable = rejectExisting(valid, run);
+        } catch (RuntimeException e) {
+            log.error("Bulk import chunk of {} routes could not be checked against existing routes: {}",
+                    valid.size(), failureMessage(e));
+            for (PendingRoute pending : valid) {
+                run.errors.add(error(pending.index, pending.route.getRouteId(),
+                        "Could not check for existing routes: " + failureMessage(e)));
+            }
+            return;
+        }
+        if (insertable.isEmpty()) {
+            return;
+        }
+
+        List<PendingRoute> inserted;
+        try {
+            insertInTransaction(insertable);
+            inserted = insertable;
+        } catch (RuntimeException e) {
+            log.warn("Bulk import chunk of {} routes failed ({}), retrying record by record",
+                    insertable.size(), failureMessage(e));
+            inserted = new ArrayList<>();
+            for (PendingRoute pending : insertable) {
+                try {
+                    insertInTransaction(List.of(pending));
+                    inserted.add(pending);
+                } catch (RuntimeException recordFailure) {
+                    run.errors.add(error(pending.index, pending.route.getRouteId(), failureMessage(recordFailure)));
+                }
+            }
+        }
+
+        run.imported += inserted.size();
+        for (PendingRoute pending : inserted) {
+            run.stopsImported += stopsOf(pending.route).size();
+        }
+    }
+
+    private String validate(RouteDTO route, ImportRun run) {
+        if (route == null) {
+            return "Empty record";
+        }
+        if (route.getRouteId() == null || route.getRouteName() == null
+                || route.getOriginCity() == null || route.getDestinationCity() == null) {
+            return "routeId, routeName, originCity and destinationCity are required";
+        }
+        for (RouteStopDTO stop : stopsOf(route)) {
+            if (stop.getStopId() == null || stop.getCityName() == null || stop.getStopSequence() == null) {
+                return "Every stop needs stopId, cityName and stopSequence";
+            }
+        }
+        if (!run.routeIds.add(route.getRouteId())) {
+            return "Duplicate routeId in import";
+        }
+        if (!run.cityPairs.add(pairKey(route.getOriginCity(), route.getDestinationCity()))) {
+            return "Duplicate route between these cities in import";
+        }
+        for (RouteStopDTO stop : stopsOf(route)) {
+            if (!run.stopIds.add(stop.getStopId())) {
+                return "Duplicate stopId in import: " + stop.getStopId();
+            }
+        }
+        return null;
+    }
+
+    // One query per chunk instead of an exists check per route
+    private List<PendingRoute> rejectExisting(List<PendingRoute> candidates, ImportRun run) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<String> routeIds = new HashSet<>();
+        Set<String> originCities = new HashSet<>();
+        Set<String> destinationCities = new HashSet<>();
+        for (PendingRoute pending : candidates) {
+            routeIds.add(pending.route.getRouteId());
+            originCities.add(CityNames.normalize(pending.route.getOriginCity()));
+            destinationCities.add(CityNames.normalize(pending.route.getDestinationCity()));
+        }
+
+        Set<String> existingIds = new HashSet<>();
+        Set<String> existingPairs = new HashSet<>();
+        for (RouteKeyView existing : routeRepository.findImportConflicts(routeIds, originCities, destinationCities)) {
+            existingIds.add(existing.getRouteId());
+            existingPairs.add(pairKey(existing.getOriginCity(), existing.getDestinationCity()));
+        }
+
+        List<PendingRoute> insertable = new ArrayList<>(candidates.size());
+        for (PendingRoute pending : candidates) {
+            RouteDTO route = pending.route;
+            if (existingIds.contains(route.getRouteId())) {
+                run.errors.add(error(pending.index, route.getRouteId(), "Route already exists with this ID"));
+            } else if (existingPairs.contains(pairKey(route.getOriginCity(), route.getDestinationCity()))) {
+                run.errors.add(error(pending.index, route.getRouteId(), "Route already exists between these cities"));
+            } else {
+                insertable.add(pending);
+            }
+        }
+        return insertable;
+    }
+
+    private void insertInTransaction(List<PendingRoute> routes) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RouteStopRow> stops = new ArrayList<>();
+        for (PendingRoute pending : routes) {
+            for (RouteStopDTO stop : stopsOf(pending.route)) {
+                stops.add(new RouteStopRow(pending.route.getRouteId(), stop));
+            }
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_ROUTE, routes, routes.size(), (ps, pending) -> {
+                RouteDTO route = pending.route;
+                String originCity = CityNames.normalize(route.getOriginCity());
+                String destinationCity = CityNames.normalize(route.getDestinationCity());
+                ps.setString(1, route.getRouteId());
+                ps.setString(2, route.getRouteName());
+                ps.setString(3, originCity);
+                ps.setString(4, destinationCity);
+                setDecimal(ps, 5, route.getTotalDistance());
+                setDecimal(ps, 6, route.getEstimatedDuration());
+                ps.setString(7, route.getRouteDescription());
+                ps.setBoolean(8, route.getIsActive() == null || route.getIsActive());
+                ps.setTimestamp(9, Timestamp.valueOf(route.getCreatedAt() != null ? route.getCreatedAt() : now));
+                ps.setTimestamp(10, route.getUpdatedAt() != null ? Timestamp.valueOf(route.getUpdatedAt()) : null);
+                // Same keys the Route entity lifecycle would set; this path bypasses JPA
+                ps.setString(11, originCity);
+                ps.setString(12, destinationCity);
+            });
+            if (!stops.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_STOP, stops, stops.size(), (ps, row) -> {
+                    RouteStopDTO stop = row.stop;
+                    String cityName = CityNames.normalize(stop.getCityName());
+                    ps.setString(1, stop.getStopId());
+                    ps.setString(2, row.routeId);
+                    ps.setString(3, cityName);
+                    ps.setInt(4, stop.getStopSequence());
+                    setDecimal(ps, 5, stop.getDistanceFromOrigin());
+                    setDecimal(ps, 6, stop.getEstimatedStopDuration());
+                    ps.setString(7, stop.getStopType());
+                    ps.setBoolean(8, stop.getIsActive() == null || stop.getIsActive());
+                    ps.setString(9, cityName);
+                });
+            }
+            // Inside the transaction so the change log entries commit (or roll back) with the chunk;
+            // transactional listeners still only hear about it once it has committed
+            publishChanges(routes);
+        });
+    }
+
+    private void publishChanges(List<PendingRoute> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        List<RouteChangedEvent> changes = new ArrayList<>(inserted.size());
+        for (PendingRoute pending : inserted) {
+            changes.add(RouteChangedEvent.builder()
+                    .changeType(RouteChangeType.ROUTE_CREATED)
+                    .routeId(pending.route.getRouteId())
+                    .originCity(CityNames.normalize(pending.route.getOriginCity()))
+                    .destinationCity(CityNames.normalize(pending.route.getDestinationCity()))
+                    .build());
+        }
+        eventPublisher.publishEvent(new RouteBatchChangedEvent(changes));
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+        if (value != null) {
+            ps.setBigDecimal(index, value);
+        } else {
+            ps.setNull(index, Types.DECIMAL);
+        }
+    }
+
+    private static String failureMessage(RuntimeException e) {
+        return e instanceof DataAccessException dataAccess ? dataAccess.getMostSpecificCause().getMessage() : e.getMessage();
+    }
+
+    private static List<RouteStopDTO> stopsOf(RouteDTO route) {
+        return route.getStops() != null ? route.getStops() : List.of();
+    }
+
+    private static String pairKey(String originCity, String destinationCity) {
+        return CityNames.normalize(originCity) + "->" + CityNames.normalize(destinationCity);
+    }
+
+    private static BulkImportErrorDTO error(int index, String routeId, String message) {
+        return BulkImportErrorDTO.builder()
+                .index(index)
+                .routeId(routeId)
+                .message(message)
+                .build();
+    }
+
+    private static final class ImportRun {
+        private int received;
+        private int imported;
+        private int stopsImported;
+        private final List<BulkImportErrorDTO> errors = new ArrayList<>();
+        private final Set<String> routeIds = new HashSet<>();
+        private final Set<String> stopIds = new HashSet<>();
+        private final Set<String> cityPairs = new HashSet<>();
+    }
+
+    private record PendingRoute(int index, RouteDTO route) {
+    }
+
+    private record RouteStopRow(String routeId, RouteStopDTO stop) {
+    }
+}
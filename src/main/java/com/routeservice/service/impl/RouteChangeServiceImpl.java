@@ -0,0 +1,242 @@
+package com.routeservice.service.impl;
+
+import com.routeservice.dto.RouteChangeBatchDTO;
+import com.routeservice.dto.RouteChangeDTO;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.entity.RouteChange;
+import com.routeservice.entity.RouteChangeSequence;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteChangeRepository;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.service.RouteChangeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only change log of routes and stops for delta sync. Every RouteChangedEvent is recorded
+ * synchronously, in the transaction that made the change, so an entry exists exactly when its
+ * change committed. Readers get the latest entry per route, with the route as it is now.
+ */
+@Service
+@Slf4j
+public class RouteChangeServiceImpl implements RouteChangeService {
+
+    private static final String SEED_COUNTER = "INSERT INTO route_change_sequence (name, last_sequence, purged_through) " +
+            "SELECT ?, 0, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM route_change_sequence WHERE name = ?)";
+
+    private static final String INSERT_CHANGE = "INSERT INTO route_change (sequence, route_id, stop_id, change_type, " +
+            "changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private RouteChangeRepository routeChangeRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${route.changes.batch.default-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${route.changes.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    @Value("${route.changes.compaction.batch-size:1000}")
+    private int compactionBatchSize;
+
+    @Value("${route.changes.compaction.tombstone-retention:7d}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Creates the counter row before any write can need it, so the first change never has to insert
+     * it under contention. Another instance starting against the same database may win the insert.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void seedCounter() {
+        try {
+            jdbcTemplate.update(SEED_COUNTER, RouteChangeSequence.ROUTES, RouteChangeSequence.ROUTES);
+        } catch (DuplicateKeyException e) {
+            log.debug("Route change counter was seeded by another instance");
+        }
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRouteChanged(RouteChangedEvent event) {
+        record(List.of(event));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRoutesChanged(RouteBatchChangedEvent event) {
+        record(event.getChanges());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RouteChangeBatchDTO getChanges(long since, Integer limit) {
+        int batchSize = limit == null ? defaultBatchSize : Math.max(1, Math.min(limit, maxBatchSize));
+
+        // One extra entry tells whether another batch exists without a count query
+        List<RouteChange> entries = routeChangeRepository.findBySequenceGreaterThanOrderBySequence(since,
+                Limit.of(batchSize + 1));
+        boolean hasMore = entries.size() > batchSize;
+        if (hasMore) {
+            entries = entries.subList(0, batchSize);
+        }
+
+        // Read after the entries: compaction moves purgedThrough in the transaction that deletes,
+        // so a purge racing this read can only make the batch ask for a resync it did not need
+        RouteChangeSequence counter = entityManager.find(RouteChangeSequence.class, RouteChangeSequence.ROUTES);
+        long latestSequence = counter != null ? counter.getLastSequence() : 0;
+        boolean resyncRequired = counter != null && since < counter.getPurgedThrough();
+
+        Map<String, RouteChange> latestPerRoute = new LinkedHashMap<>();
+        for (RouteChange entry : entries) {
+            latestPerRoute.remove(entry.getRouteId()); // keep the map in order of each route's latest entry
+            latestPerRoute.put(entry.getRouteId(), entry);
+        }
+        Map<String, RouteDTO> routes = latestPerRoute.isEmpty() ? Map.of() :
+                routeRepository.findWithStopsByRouteIdInOrderByRouteId(latestPerRoute.keySet()).stream()
+                        .map(RouteMapper::toRouteDTO)
+                        .collect(Collectors.toMap(RouteDTO::getRouteId, Function.identity()));
+
+        List<RouteChangeDTO> changes = new ArrayList<>(latestPerRoute.size());
+        for (RouteChange entry : latestPerRoute.values()) {
+            changes.add(RouteChangeDTO.builder()
+                    .sequence(entry.getSequence())
+                    .changeType(entry.getChangeType())
+                    .routeId(entry.getRouteId())
+                    .changedAt(entry.getChangedAt())
+                    .route(routes.get(entry.getRouteId()))
+                    .build());
+        }
+        log.debug("Read {} route changes after sequence {} as {} routes", entries.size(), since, changes.size());
+
+        return RouteChangeBatchDTO.builder()
+                .changes(changes)
+                .nextSince(entries.isEmpty() ? since : entries.get(entries.size() - 1).getSequence())
+                .hasMore(hasMore)
+                .latestSequence(Math.max(latestSequence, since))
+                .resyncRequired(resyncRequired)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getLatestSequence() {
+        RouteChangeSequence counter = entityManager.find(RouteChangeSequence.class, RouteChangeSequence.ROUTES);
+        return counter != null ? counter.getLastSequence() : 0;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${route.changes.compaction.interval:10m}",
+            initialDelayString = "${route.changes.compaction.interval:10m}")
+    public int compact() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int superseded = 0;
+        int removed;
+        do {
+            removed = transaction.execute(status -> {
+                List<Long> sequences = routeChangeRepository.findSupersededSequences(Limit.of(compactionBatchSize));
+                return sequences.isEmpty() ? 0 : routeChangeRepository.deleteBySequenceIn(sequences);
+            });
+            superseded += removed;
+        } while (removed > 0);
+
+        LocalDateTime purgeBefore = LocalDateTime.now().minus(tombstoneRetention);
+        int purged = 0;
+        do {
+            removed = transaction.execute(status -> {
+                List<Long> sequences = routeChangeRepository.findLatestSequencesByChangeTypeBefore(
+                        RouteChangeType.ROUTE_DELETED, purgeBefore, Limit.of(compactionBatchSize));
+                if (sequences.isEmpty()) {
+                    return 0;
+                }
+                RouteChangeSequence counter = lockCounter();
+                counter.setPurgedThrough(Math.max(counter.getPurgedThrough(), sequences.get(sequences.size() - 1)));
+                return routeChangeRepository.deleteBySequenceIn(sequences);
+            });
+            purged += removed;
+        } while (removed > 0);
+
+        if (superseded + purged > 0) {
+            log.info("Compacted route change log: {} superseded entries and {} deletes older than {} removed",
+                    superseded, purged, tombstoneRetention);
+        }
+        return superseded + purged;
+    }
+
+    private void record(List<RouteChangedEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Held until the writing transaction ends, which serializes writers in sequence order
+        RouteChangeSequence counter = lockCounter();
+        long first = counter.getLastSequence() + 1;
+        counter.setLastSequence(counter.getLastSequence() + changes.size());
+
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RouteChangedEvent change = changes.get(i);
+                ps.setLong(1, first + i);
+                ps.setString(2, change.getRouteId());
+                ps.setString(3, change.getStopId());
+                ps.setString(4, change.getChangeType().name());
+                ps.setTimestamp(5, changedAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return changes.size();
+            }
+        });
+    }
+
+    private RouteChangeSequence lockCounter() {
+        RouteChangeSequence counter = entityManager.find(RouteChangeSequence.class, RouteChangeSequence.ROUTES,
+                LockModeType.PESSIMISTIC_WRITE);
+        if (counter == null) {
+            throw new IllegalStateException("Route change counter is missing; it is seeded at startup");
+        }
+        return counter;
+    }
+}
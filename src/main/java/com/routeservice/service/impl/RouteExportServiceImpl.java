@@ -0,0 +1,153 @@
+package com.routeservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteStopDTO;
+import com.routeservice.service.RouteExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class RouteExportServiceImpl implements RouteExportService {
+
+    // Flat rows of route columns followed by stop columns (null when the route has no stops).
+    // Scalar rows never enter the persistence context, so nothing accumulates while streaming.
+    private static final String EXPORT_QUERY = "SELECT r.routeId, r.routeName, r.originCity, r.destinationCity, " +
+            "r.totalDistance, r.estimatedDuration, r.routeDescription, r.isActive, r.createdAt, r.updatedAt, " +
+            "s.stopId, s.cityName, s.stopSequence, s.distanceFromOrigin, s.estimatedStopDuration, s.stopType, s.isActive " +
+            "FROM Route r LEFT JOIN r.stops s " +
+            "WHERE r.routeId > :after " +
+            "ORDER BY r.routeId, s.stopSequence";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${route.export.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${route.export.flush-every:200}")
+    private int flushEvery;
+
+    @Override
+    public long exportRoutes(String afterRouteId, OutputStream out) {
+        log.info("Exporting routes after {}", afterRouteId);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        Long written = transaction.execute(status -> {
+            try (Stream<Object[]> rows = entityManager.createQuery(EXPORT_QUERY, Object[].class)
+                    .setParameter("after", afterRouteId != null ? afterRouteId : "")
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, streamingFetchSize())
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                return writeRoutes(rows.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        log.info("Exported {} routes after {}", written, afterRouteId);
+        return written != null ? written : 0L;
+    }
+
+    // Connector/J buffers the whole result unless the fetch size is Integer.MIN_VALUE, which streams
+    // this one query row by row; other drivers honour the configured fetch size
+    private int streamingFetchSize() {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        return dialect instanceof MySQLDialect ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    private long writeRoutes(Iterator<Object[]> rows, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(RouteDTO.class);
+        long count = 0;
+        RouteDTO current = null;
+
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            String routeId = (String) row[0];
+
+            if (current == null || !current.getRouteId().equals(routeId)) {
+                if (current != null) {
+                    writeLine(writer, current, out);
+                    if (++count % flushEvery == 0) {
+                        out.flush();
+                    }
+                }
+                current = toRouteDTO(row);
+            }
+            if (row[10] != null) {
+                current.getStops().add(toStopDTO(routeId, row));
+            }
+        }
+
+        if (current != null) {
+            writeLine(writer, current, out);
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+
+    private void writeLine(ObjectWriter writer, RouteDTO route, OutputStream out) throws IOException {
+        out.write(writer.writeValueAsBytes(route));
+        out.write('\n');
+    }
+
+    private RouteDTO toRouteDTO(Object[] row) {
+        return RouteDTO.builder()
+                .routeId((String) row[0])
+                .routeName((String) row[1])
+                .originCity((String) row[2])
+                .destinationCity((String) row[3])
+                .totalDistance((BigDecimal) row[4])
+                .estimatedDuration((BigDecimal) row[5])
+                .routeDescription((String) row[6])
+                .isActive((Boolean) row[7])
+                .createdAt((LocalDateTime) row[8])
+                .updatedAt((LocalDateTime) row[9])
+                .stops(new ArrayList<>())
+                .build();
+    }
+
+    private RouteStopDTO toStopDTO(String routeId, Object[] row) {
+        return RouteStopDTO.builder()
+                .stopId((String) row[10])
+                .routeId(routeId)
+                .cityName((String) row[11])
+                .stopSequence((Integer) row[12])
+                .distanceFromOrigin((BigDecimal) row[13])
+                .estimatedStopDuration((BigDecimal) row[14])
+                .stopType((String) row[15])
+                .isActive((Boolean) row[16])
+                .build();
+    }
+}
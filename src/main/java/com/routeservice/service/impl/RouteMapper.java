@@ -0,0 +1,154 @@
+package com.routeservice.service.impl;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteSearchResponseDTO;
+import com.routeservice.dto.RouteStopDTO;
+import com.routeservice.dto.TripDTO;
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+import com.routeservice.repository.projection.RouteSearchRow;
+import com.routeservice.search.TripSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Entity/DTO conversions of {@link RouteServiceImpl}. Kept free of Spring and logging so the
+ * JMH benchmarks in {@code src/jmh/java} measure exactly what the service runs.
+ */
+final class RouteMapper {
+
+    private RouteMapper() {
+    }
+
+    static Route toRouteEntity(RouteDTO routeDTO) {
+        return Route.builder()
+                .routeId(routeDTO.getRouteId())
+                .routeName(routeDTO.getRouteName())
+                .originCity(routeDTO.getOriginCity().toUpperCase())
+                .destinationCity(routeDTO.getDestinationCity().toUpperCase())
+                .totalDistance(routeDTO.getTotalDistance())
+                .estimatedDuration(routeDTO.getEstimatedDuration())
+                .routeDescription(routeDTO.getRouteDescription())
+                .isActive(routeDTO.getIsActive())
+                .createdAt(routeDTO.getCreatedAt())
+                .updatedAt(routeDTO.getUpdatedAt())
+                .build();
+    }
+
+    static RouteDTO toRouteDTO(Route route) {
+        List<RouteStopDTO> stopDTOs = route.getStops() != null ?
+                route.getStops().stream()
+                        .map(RouteMapper::toStopDTO)
+                        .collect(Collectors.toList()) :
+                null;
+
+        return RouteDTO.builder()
+                .routeId(route.getRouteId())
+                .routeName(route.getRouteName())
+                .originCity(route.getOriginCity())
+                .destinationCity(route.getDestinationCity())
+                .totalDistance(route.getTotalDistance())
+                .estimatedDuration(route.getEstimatedDuration())
+                .routeDescription(route.getRouteDescription())
+                .isActive(route.getIsActive())
+                .stops(stopDTOs)
+                .createdAt(route.getCreatedAt())
+                .updatedAt(route.getUpdatedAt())
+                .version(route.getVersion())
+                .build();
+    }
+
+    /**
+     * Folds flat search rows, ordered by route, into one DTO per route. The result carries only
+     * what search responses use: route fields and the names of active stops.
+     */
+    static List<RouteDTO> toSearchRouteDTOs(List<RouteSearchRow> rows) {
+        List<RouteDTO> routes = new ArrayList<>();
+        RouteDTO current = null;
+        for (RouteSearchRow row : rows) {
+            if (current == null || !current.getRouteId().equals(row.routeId())) {
+                current = RouteDTO.builder()
+                        .routeId(row.routeId())
+                        .routeName(row.routeName())
+                        .originCity(row.originCity())
+                        .destinationCity(row.destinationCity())
+                        .totalDistance(row.totalDistance())
+                        .estimatedDuration(row.estimatedDuration())
+                        .isActive(true)
+                        .stops(new ArrayList<>())
+                        .build();
+                routes.add(current);
+            }
+            if (row.stopCityName() != null) {
+                current.getStops().add(RouteStopDTO.builder()
+                        .routeId(row.routeId())
+                        .cityName(row.stopCityName())
+                        .isActive(true)
+                        .build());
+            }
+        }
+        return routes;
+    }
+
+    static RouteStop toStopEntity(RouteStopDTO stopDTO, Route route) {
+        return RouteStop.builder()
+                .stopId(stopDTO.getStopId())
+                .route(route)
+                .cityName(stopDTO.getCityName().toUpperCase())
+                .stopSequence(stopDTO.getStopSequence())
+                .distanceFromOrigin(stopDTO.getDistanceFromOrigin())
+                .estimatedStopDuration(stopDTO.getEstimatedStopDuration())
+                .stopType(stopDTO.getStopType())
+                .isActive(stopDTO.getIsActive())
+                .build();
+    }
+
+    static RouteStopDTO toStopDTO(RouteStop stop) {
+        return RouteStopDTO.builder()
+                .stopId(stop.getStopId())
+                .routeId(stop.getRoute().getRouteId())
+                .cityName(stop.getCityName())
+                .stopSequence(stop.getStopSequence())
+                .distanceFromOrigin(stop.getDistanceFromOrigin())
+                .estimatedStopDuration(stop.getEstimatedStopDuration())
+                .stopType(stop.getStopType())
+                .isActive(stop.getIsActive())
+                .build();
+    }
+
+    static RouteSearchResponseDTO toSearchResponse(RouteDTO route) {
+        List<String> intermediateStops = route.getStops() != null ?
+                route.getStops().stream()
+                        .filter(stop -> Boolean.TRUE.equals(stop.getIsActive()))
+                        .map(stop -> stop.getCityName())
+                        .collect(Collectors.toList()) :
+                List.of();
+
+        return RouteSearchResponseDTO.builder()
+                .routeId(route.getRouteId())
+                .routeName(route.getRouteName())
+                .originCity(route.getOriginCity())
+                .destinationCity(route.getDestinationCity())
+                .totalDistance(route.getTotalDistance() != null ? route.getTotalDistance().doubleValue() : 0.0)
+                .estimatedDuration(route.getEstimatedDuration() != null ? route.getEstimatedDuration().doubleValue() : 0.0)
+                .intermediateStops(intermediateStops)
+                .availableTripsCount(0) // Will be set later
+                .availableTrips(List.of()) // Will be set later
+                .pairLevelTrips(false)
+                .build();
+    }
+
+    static RouteSearchResponseDTO toSearchResponse(RouteDTO route, List<TripDTO> availableTrips) {
+        RouteSearchResponseDTO response = toSearchResponse(route);
+
+        // ✅ Add TripDTO list to response
+        response.setAvailableTrips(availableTrips);
+        response.setAvailableTripsCount(availableTrips.size());
+
+        // ✅ Calculate additional summary information in one pass
+        TripSummary.of(availableTrips).applyTo(response);
+        return response;
+    }
+}
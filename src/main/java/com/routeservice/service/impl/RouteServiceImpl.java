@@ -1,30 +1,78 @@
 package com.routeservice.service.impl;
 
+import com.routeservice.cache.RouteLookupCache;
+import com.routeservice.cache.RouteLookupKey;
+import com.routeservice.cache.RoutePairFilter;
+import com.routeservice.cache.TripAvailabilityCache;
+import com.routeservice.cache.TripCacheKey;
 import com.routeservice.dto.*;
 import com.routeservice.entity.Route;
 import com.routeservice.entity.RouteStop;
-import com.routeservice.feign.BusServiceFeignClient;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.feign.BusServiceClient;
+import com.routeservice.graph.RouteGraph;
+import com.routeservice.metrics.SearchMetrics;
 import com.routeservice.repository.RouteRepository;
 import com.routeservice.repository.RouteStopRepository;
+import com.routeservice.repository.projection.RouteSearchRow;
+import com.routeservice.repository.projection.RouteVersionView;
+import com.routeservice.search.CityIndex;
+import com.routeservice.search.RouteSnapshot;
+import com.routeservice.search.RouteSnapshotIndex;
+import com.routeservice.search.TripIndex;
+import com.routeservice.search.TripSummary;
 import com.routeservice.service.RouteService;
+import com.routeservice.util.CityNames;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
+@Timed(value = "route.service", description = "RouteService calls", histogram = true)
 public class RouteServiceImpl implements RouteService {
 
+    // Stands in for the trips of a bus-service call that missed its deadline; compared by identity
+    private static final List<TripDTO> TRIPS_TIMED_OUT = Collections.unmodifiableList(new ArrayList<>());
+
 
     @Autowired
-    private BusServiceFeignClient busServiceFeignClient; // ✅ Injected Feign Client
+    private BusServiceClient busServiceClient; // ✅ Feign client behind timeouts, circuit breaker and hedging
 
     @Autowired
     private RouteRepository routeRepository;
@@ -32,83 +80,176 @@ public class RouteServiceImpl implements RouteService {
     @Autowired
     private RouteStopRepository routeStopRepository;
 
+    @Autowired
+    private RouteGraph routeGraph;
+
+    @Autowired
+    private CityIndex cityIndex;
+
+    @Autowired
+    private RouteLookupCache routeLookupCache;
+
+    @Autowired
+    private TripAvailabilityCache tripAvailabilityCache;
+
+    @Autowired
+    private RoutePairFilter routePairFilter;
+
+    @Autowired
+    private RouteSnapshotIndex routeSnapshotIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("searchExecutor")
+    private TaskExecutor searchExecutor;
+
+    @Value("${route.search.db-timeout:2s}")
+    private Duration searchDbTimeout;
+
+    @Value("${route.search.trips-timeout:3s}")
+    private Duration searchTripsTimeout;
+
+    @Value("${route.search.calendar.parallelism:10}")
+    private int calendarParallelism;
+
+    @Value("${route.search.calendar.max-days:60}")
+    private int calendarMaxDays;
+
+    @Value("${route.search.calendar.timeout:5s}")
+    private Duration calendarTimeout;
+
+    @Value("${route.search.batch.max-pairs:100}")
+    private int batchMaxPairs;
+
+    @Value("${route.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${route.pagination.max-size:500}")
+    private int maxPageSize;
+
     @Override
+    @Transactional
     public RouteDTO createRoute(RouteDTO routeDTO) {
         log.info("Creating new route: {} from {} to {}",
                 routeDTO.getRouteName(), routeDTO.getOriginCity(), routeDTO.getDestinationCity());
 
-        // Check if route already exists
-        if (routeRepository.existsByOriginCityAndDestinationCity(
-                routeDTO.getOriginCity(), routeDTO.getDestinationCity())) {
+        // Check if route already exists; always in the database, since the pair filter may not have
+        // seen a route created through another node yet
+        String originCity = CityNames.normalize(routeDTO.getOriginCity());
+        String destinationCity = CityNames.normalize(routeDTO.getDestinationCity());
+        if (routeRepository.existsByOriginCityKeyAndDestinationCityKey(originCity, destinationCity)) {
             log.error("Route already exists from {} to {}", routeDTO.getOriginCity(), routeDTO.getDestinationCity());
             throw new RuntimeException("Route already exists between these cities");
         }
 
-        Route route = convertToRouteEntity(routeDTO);
+        Route route = RouteMapper.toRouteEntity(routeDTO);
         Route savedRoute = routeRepository.save(route);
 
         // Save stops if provided
         if (routeDTO.getStops() != null && !routeDTO.getStops().isEmpty()) {
             List<RouteStop> stops = routeDTO.getStops().stream()
-                    .map(stopDTO -> convertToStopEntity(stopDTO, savedRoute))
+                    .map(stopDTO -> RouteMapper.toStopEntity(stopDTO, savedRoute))
                     .collect(Collectors.toList());
             routeStopRepository.saveAll(stops);
         }
 
+        publishChange(RouteChangeType.ROUTE_CREATED, savedRoute, null);
         log.info("Route created successfully with ID: {}", savedRoute.getRouteId());
-        return convertToRouteDTO(savedRoute);
+        return RouteMapper.toRouteDTO(savedRoute);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public RouteDTO getRouteById(String routeId) {
         log.debug("Fetching route by ID: {}", routeId);
 
-        Route route = routeRepository.findById(routeId)
+        Route route = routeRepository.findWithStopsByRouteId(routeId)
                 .orElseThrow(() -> {
                     log.error("Route not found with ID: {}", routeId);
                     return new RuntimeException("Route not found with ID: " + routeId);
                 });
 
-        return convertToRouteDTO(route);
+        return RouteMapper.toRouteDTO(route);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RouteDTO> getAllRoutes() {
         log.debug("Fetching all routes");
 
-        List<Route> routes = routeRepository.findAll();
+        // Stops are fetched in the same query; converting them must not trigger a query per route
+        List<Route> routes = routeRepository.findAllWithStops();
         log.info("Found {} routes", routes.size());
 
         return routes.stream()
-                .map(this::convertToRouteDTO)
+                .map(RouteMapper::toRouteDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RouteDTO> getRoutesByCities(String originCity, String destinationCity) {
         log.debug("Fetching routes from {} to {}", originCity, destinationCity);
 
-        List<Route> routes = routeRepository.findByOriginCityAndDestinationCity(originCity, destinationCity);
+        List<RouteDTO> routes = findRoutes(originCity, destinationCity, false);
         log.info("Found {} routes from {} to {}", routes.size(), originCity, destinationCity);
 
-        return routes.stream()
-                .map(this::convertToRouteDTO)
-                .collect(Collectors.toList());
+        return routes;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RouteDTO> getActiveRoutes() {
         log.debug("Fetching all active routes");
 
-        List<Route> routes = routeRepository.findByIsActiveTrue();
+        List<Route> routes = routeRepository.findWithStopsByIsActiveTrue();
         log.info("Found {} active routes", routes.size());
 
         return routes.stream()
-                .map(this::convertToRouteDTO)
+                .map(RouteMapper::toRouteDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public RoutePageDTO getRoutesPage(String after, Integer size, String originCity, String destinationCity, Boolean active) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        log.debug("Fetching {} routes after {} (origin={}, destination={}, active={})",
+                pageSize, after, originCity, destinationCity, active);
+
+        // One extra ID tells whether another page exists without a count query
+        List<String> routeIds = routeRepository.findRouteIdsAfter(after != null ? after : "",
+                CityNames.normalize(originCity), CityNames.normalize(destinationCity), active, Limit.of(pageSize + 1));
+
+        boolean hasMore = routeIds.size() > pageSize;
+        if (hasMore) {
+            routeIds = routeIds.subList(0, pageSize);
+        }
+
+        List<RouteDTO> routes = routeIds.isEmpty() ? List.of() :
+                routeRepository.findWithStopsByRouteIdInOrderByRouteId(routeIds).stream()
+                        .map(RouteMapper::toRouteDTO)
+                        .collect(Collectors.toList());
+        log.info("Found {} routes in page after {}", routes.size(), after);
+
+        return RoutePageDTO.builder()
+                .routes(routes)
+                .size(routes.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? routeIds.get(routeIds.size() - 1) : null)
+                .build();
+    }
+
+    @Override
+    @Transactional
     public RouteDTO updateRoute(String routeId, RouteDTO routeDTO) {
         log.info("Updating route with ID: {}", routeId);
 
@@ -136,25 +277,30 @@ public class RouteServiceImpl implements RouteService {
         }
 
         Route updatedRoute = routeRepository.save(existingRoute);
+        publishChange(RouteChangeType.ROUTE_UPDATED, updatedRoute, null);
         log.info("Route updated successfully with ID: {}", routeId);
 
-        return convertToRouteDTO(updatedRoute);
+        return RouteMapper.toRouteDTO(updatedRoute);
     }
 
     @Override
+    @Transactional
     public void deleteRoute(String routeId) {
         log.info("Deleting route with ID: {}", routeId);
 
-        if (!routeRepository.existsById(routeId)) {
-            log.error("Route not found for deletion with ID: {}", routeId);
-            throw new RuntimeException("Route not found with ID: " + routeId);
-        }
+        Route route = routeRepository.findById(routeId)
+                .orElseThrow(() -> {
+                    log.error("Route not found for deletion with ID: {}", routeId);
+                    return new RuntimeException("Route not found with ID: " + routeId);
+                });
 
-        routeRepository.deleteById(routeId);
+        routeRepository.delete(route);
+        publishChange(RouteChangeType.ROUTE_DELETED, route, null);
         log.info("Route deleted successfully with ID: {}", routeId);
     }
 
     @Override
+    @Transactional
     public RouteDTO deactivateRoute(String routeId) {
         log.info("Deactivating route with ID: {}", routeId);
 
@@ -166,12 +312,14 @@ public class RouteServiceImpl implements RouteService {
 
         route.setIsActive(false);
         Route deactivatedRoute = routeRepository.save(route);
+        publishChange(RouteChangeType.ROUTE_DEACTIVATED, deactivatedRoute, null);
         log.info("Route deactivated successfully with ID: {}", routeId);
 
-        return convertToRouteDTO(deactivatedRoute);
+        return RouteMapper.toRouteDTO(deactivatedRoute);
     }
 
     @Override
+    @Transactional
     public RouteDTO activateRoute(String routeId) {
         log.info("Activating route with ID: {}", routeId);
 
@@ -183,9 +331,10 @@ public class RouteServiceImpl implements RouteService {
 
         route.setIsActive(true);
         Route activatedRoute = routeRepository.save(route);
+        publishChange(RouteChangeType.ROUTE_ACTIVATED, activatedRoute, null);
         log.info("Route activated successfully with ID: {}", routeId);
 
-        return convertToRouteDTO(activatedRoute);
+        return RouteMapper.toRouteDTO(activatedRoute);
     }
 
     @Override
@@ -193,13 +342,14 @@ public class RouteServiceImpl implements RouteService {
         log.info("Searching routes from {} to {} for {} passengers",
                 searchRequest.getOriginCity(), searchRequest.getDestinationCity(), searchRequest.getPassengers());
 
-        List<Route> routes = routeRepository.findByOriginCityAndDestinationCityAndIsActiveTrue(
-                searchRequest.getOriginCity().toUpperCase(),
-                searchRequest.getDestinationCity().toUpperCase()
-        );
+        RouteSnapshot snapshot = routeSnapshotIndex.currentForSearch();
+        if (snapshot != null) {
+            return snapshot.search(searchRequest.getOriginCity(), searchRequest.getDestinationCity());
+        }
+        List<RouteDTO> routes = findRoutes(searchRequest.getOriginCity(), searchRequest.getDestinationCity(), true);
 
         return routes.stream()
-                .map(this::convertToSearchResponseDTO)
+                .map(RouteMapper::toSearchResponse)
                 .collect(Collectors.toList());
     }
 
@@ -208,8 +358,7 @@ public class RouteServiceImpl implements RouteService {
         log.info("🔍 Searching routes from {} to {} on date: {}", origin, destination, travelDate);
 
         // 1. Get routes from Route database
-        List<Route> routes = routeRepository.findByOriginCityAndDestinationCityAndIsActiveTrue(
-                origin.toUpperCase(), destination.toUpperCase());
+        List<RouteDTO> routes = findRoutes(origin, destination, true);
 
         log.info("📍 Found {} routes in database", routes.size());
 
@@ -218,114 +367,244 @@ public class RouteServiceImpl implements RouteService {
 
         log.info("🚌 Found {} available trips from Bus Service", availableTrips.size());
 
-        // 3. Combine both datasets
-        return routes.stream()
-                .map(route -> createRouteSearchResponse(route, availableTrips))
-                .collect(Collectors.toList());
+        // 3. Combine both datasets, giving each route only its own trips
+        return combine(routes, availableTrips, "available");
     }
 
-    private List<TripDTO> getAvailableTripsFromBusService(String origin, String destination, LocalDate travelDate) {
+    @Override
+    public CompletableFuture<List<RouteSearchResponseDTO>> searchAvailableRoutesAsync(String origin, String destination, LocalDate travelDate) {
+        log.info("🔍 Searching routes from {} to {} on date: {} (async)", origin, destination, travelDate);
+
+        CompletableFuture<List<RouteDTO>> routesFuture;
+        CompletableFuture<List<TripDTO>> tripsFuture;
         try {
-            log.info("📞 Calling Bus Service via Feign: {} to {} on {}", origin, destination, travelDate);
+            // The two lookups are independent, so they run side by side instead of one after the other
+            routesFuture = CompletableFuture
+                    .supplyAsync(() -> findRoutes(origin, destination, true), searchExecutor)
+                    .orTimeout(searchDbTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            // A slow bus-service degrades to "no trips", the same as when the call fails
+            tripsFuture = CompletableFuture
+                    .supplyAsync(() -> getAvailableTripsFromBusService(origin, destination, travelDate), searchExecutor)
+                    .completeOnTimeout(TRIPS_TIMED_OUT, searchTripsTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Search executor saturated, rejecting search from {} to {}", origin, destination);
+            return CompletableFuture.failedFuture(e);
+        }
 
-            // ✅ Convert LocalDate to String format that Bus Service expects
-            String departureDate = travelDate != null ?
-                    travelDate.atStartOfDay().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) :
-                    LocalDate.now().atStartOfDay().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return routesFuture.thenCombine(tripsFuture, (routes, availableTrips) -> {
+            log.info("📍 Found {} routes in database and 🚌 {} available trips from Bus Service",
+                    routes.size(), availableTrips.size());
+            return combine(routes, availableTrips, "available");
+        });
+    }
 
-            // ✅ Call Feign client with all required parameters
-            List<TripDTO> trips = busServiceFeignClient.getAvailableTrips(origin, destination, departureDate);
+    @Override
+    public CompletableFuture<FareCalendarDTO> getFareCalendar(String origin, String destination, LocalDate startDate, int days) {
+        int dayCount = Math.max(1, Math.min(days, calendarMaxDays));
+        log.info("📅 Fare calendar from {} to {} for {} days starting {}", origin, destination, dayCount, startDate);
 
-            log.info("✅ Successfully retrieved {} trips from Bus Service", trips != null ? trips.size() : 0);
-            return trips != null ? trips : List.of();
+        try {
+            // Routes are resolved once for the whole range; only the trip lookups are per date
+            return CompletableFuture
+                    .supplyAsync(() -> findRoutes(origin, destination, true), searchExecutor)
+                    .orTimeout(searchDbTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .thenCompose(routes -> loadFareCalendar(origin, destination, startDate, dayCount, routes));
+        } catch (RejectedExecutionException e) {
+            log.warn("Search executor saturated, rejecting fare calendar from {} to {}", origin, destination);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("❌ Error calling Bus Service: {}", e.getMessage());
-            return List.of();
+    // Dates are spread over at most calendarParallelism lanes, each walking its dates in turn, so one
+    // calendar never occupies more than that many search threads. Lanes that miss the deadline keep
+    // running and still warm the trip cache for the next request.
+    private CompletableFuture<FareCalendarDTO> loadFareCalendar(String origin, String destination, LocalDate startDate,
+                                                                int dayCount, List<RouteDTO> routes) {
+        AtomicReferenceArray<FareCalendarDayDTO> loaded = new AtomicReferenceArray<>(dayCount);
+
+        CompletableFuture<?>[] lanes = new CompletableFuture<?>[0];
+        if (!routes.isEmpty()) {
+            int laneCount = Math.min(dayCount, calendarParallelism);
+            lanes = new CompletableFuture<?>[laneCount];
+            for (int lane = 0; lane < laneCount; lane++) {
+                int firstDay = lane;
+                lanes[lane] = CompletableFuture.runAsync(() -> {
+                    for (int day = firstDay; day < dayCount; day += laneCount) {
+                        LocalDate date = startDate.plusDays(day);
+                        List<TripDTO> trips = getAvailableTripsFromBusService(origin, destination, date);
+                        loaded.set(day, toCalendarDay(date, TripSummary.of(TripIndex.matching(routes, trips))));
+                    }
+                }, searchExecutor);
+            }
         }
+
+        return CompletableFuture.allOf(lanes)
+                .completeOnTimeout(null, calendarTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> {
+                    List<FareCalendarDayDTO> days = new ArrayList<>(dayCount);
+                    boolean partial = false;
+                    int trips = 0;
+                    for (int day = 0; day < dayCount; day++) {
+                        FareCalendarDayDTO calendarDay = loaded.get(day);
+                        if (calendarDay == null && !routes.isEmpty()) {
+                            partial = true;
+                            calendarDay = FareCalendarDayDTO.builder().date(startDate.plusDays(day)).build();
+                        } else if (calendarDay == null) {
+                            calendarDay = toCalendarDay(startDate.plusDays(day), TripSummary.of(List.of()));
+                        } else {
+                            trips += calendarDay.getTripCount();
+                        }
+                        days.add(calendarDay);
+                    }
+                    if (partial) {
+                        searchMetrics.recordTripsTimeout("calendar");
+                    }
+                    searchMetrics.recordResults("calendar", routes.size(), trips);
+                    return FareCalendarDTO.builder()
+                            .originCity(origin)
+                            .destinationCity(destination)
+                            .routeCount(routes.size())
+                            .partial(partial)
+                            .days(days)
+                            .build();
+                });
     }
 
-    // ✅ Helper methods for TripDTO processing
-    private Double calculateLowestFare(List<TripDTO> trips) {
-        return trips.stream()
-                .map(TripDTO::getBaseFareAmount)
-                .min(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO)
-                .doubleValue();
+    private FareCalendarDayDTO toCalendarDay(LocalDate date, TripSummary summary) {
+        return FareCalendarDayDTO.builder()
+                .date(date)
+                .lowestFare(summary.getLowestFare() != null ? summary.getLowestFare().doubleValue() : null)
+                .totalAvailableSeats(summary.getTotalAvailableSeats())
+                .tripCount(summary.getTripCount())
+                .build();
     }
 
-    private Double calculateHighestFare(List<TripDTO> trips) {
-        return trips.stream()
-                .map(TripDTO::getBaseFareAmount)
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO)
-                .doubleValue();
+    @Override
+    public List<CompletableFuture<BatchSearchResultDTO>> searchRoutesBatch(List<RouteSearchRequestDTO> searchRequests) {
+        // 1. Collapse duplicate searches, remembering which request positions each one answers
+        Map<TripCacheKey, List<Integer>> distinct = new LinkedHashMap<>();
+        for (int i = 0; i < searchRequests.size(); i++) {
+            RouteSearchRequestDTO request = searchRequests.get(i);
+            LocalDate travelDate = request.getTravelDate() != null ? request.getTravelDate() : LocalDate.now();
+            distinct.computeIfAbsent(TripCacheKey.of(request.getOriginCity(), request.getDestinationCity(), travelDate),
+                    key -> new ArrayList<>()).add(i);
+        }
+        if (distinct.size() > batchMaxPairs) {
+            throw new IllegalArgumentException("Batch search is limited to " + batchMaxPairs + " distinct searches");
+        }
+        log.info("🔍 Batch search: {} requests, {} distinct", searchRequests.size(), distinct.size());
+
+        // 2. Routes for every pair in one lookup, trips for every distinct search side by side
+        Set<RouteLookupKey> routeKeys = new HashSet<>();
+        distinct.keySet().forEach(key -> routeKeys.add(routeKeyOf(key)));
+        CompletableFuture<Map<RouteLookupKey, List<RouteDTO>>> routesFuture = submitSearch(
+                () -> findRoutesBatch(routeKeys))
+                .orTimeout(searchDbTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        // 3. Each search completes on its own so the caller can stream it as soon as it is ready
+        List<CompletableFuture<BatchSearchResultDTO>> results = new ArrayList<>(distinct.size());
+        distinct.forEach((key, requestIndexes) -> {
+            RouteSearchRequestDTO first = searchRequests.get(requestIndexes.get(0));
+            CompletableFuture<List<TripDTO>> tripsFuture = submitSearch(
+                    () -> getAvailableTripsFromBusService(first.getOriginCity(), first.getDestinationCity(), key.getDepartureDate()))
+                    .completeOnTimeout(TRIPS_TIMED_OUT, searchTripsTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            BatchSearchResultDTO.BatchSearchResultDTOBuilder result = BatchSearchResultDTO.builder()
+                    .originCity(key.getOriginCity())
+                    .destinationCity(key.getDestinationCity())
+                    .travelDate(key.getDepartureDate())
+                    .requestIndexes(requestIndexes);
+
+            results.add(routesFuture
+                    .thenCombine(tripsFuture, (routesByKey, trips) ->
+                            result.routes(combine(routesByKey.getOrDefault(routeKeyOf(key), List.of()), trips, "batch")).build())
+                    .exceptionally(ex -> {
+                        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                        log.error("Batch search from {} to {} failed: {}", key.getOriginCity(), key.getDestinationCity(), cause.toString());
+                        return result.error(cause instanceof TimeoutException ? "Search timed out" :
+                                cause instanceof RejectedExecutionException ? "Search capacity exceeded" :
+                                "Search failed").build();
+                    }));
+        });
+        return results;
     }
 
-    private String findEarliestDeparture(List<TripDTO> trips) {
-        return trips.stream()
-                .map(TripDTO::getDepartureDateTime)
-                .min(LocalDateTime::compareTo)
-                .orElse(null)
-                .toString();
+    private <T> CompletableFuture<T> submitSearch(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, searchExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
-    private String findLatestDeparture(List<TripDTO> trips) {
-        return trips.stream()
-                .map(TripDTO::getDepartureDateTime)
-                .max(LocalDateTime::compareTo)
-                .orElse(null)
-                .toString();
+    private static RouteLookupKey routeKeyOf(TripCacheKey key) {
+        return RouteLookupKey.of(key.getOriginCity(), key.getDestinationCity(), true);
     }
 
-    private Integer calculateTotalAvailableSeats(List<TripDTO> trips) {
-        return trips.stream()
-                .mapToInt(TripDTO::getAvailableSeats)
-                .sum();
+    @Override
+    public List<JourneyDTO> searchJourneys(String originCity, String destinationCity, int maxTransfers, JourneyMetric metric) {
+        log.info("Planning journeys from {} to {} with up to {} transfers by {}",
+                originCity, destinationCity, maxTransfers, metric);
+
+        if (maxTransfers < 0 || maxTransfers > RouteGraph.MAX_TRANSFERS) {
+            throw new RuntimeException("maxTransfers must be between 0 and " + RouteGraph.MAX_TRANSFERS);
+        }
+
+        List<JourneyDTO> journeys = routeGraph.findJourneys(originCity, destinationCity, maxTransfers, metric);
+        log.info("Found {} journeys from {} to {}", journeys.size(), originCity, destinationCity);
+        return journeys;
     }
 
-    private RouteSearchResponseDTO convertToSearchResponseDTO(Route route) {
-        List<String> intermediateStops = route.getStops() != null ?
-                route.getStops().stream()
-                        .filter(stop -> stop.getIsActive())
-                        .map(stop -> stop.getCityName())
-                        .collect(Collectors.toList()) :
-                List.of();
+    @Override
+    public List<CitySuggestionDTO> suggestCities(String prefix, int limit) {
+        return cityIndex.suggest(prefix, limit);
+    }
 
-        return RouteSearchResponseDTO.builder()
-                .routeId(route.getRouteId())
-                .routeName(route.getRouteName())
-                .originCity(route.getOriginCity())
-                .destinationCity(route.getDestinationCity())
-                .totalDistance(route.getTotalDistance() != null ? route.getTotalDistance().doubleValue() : 0.0)
-                .estimatedDuration(route.getEstimatedDuration() != null ? route.getEstimatedDuration().doubleValue() : 0.0)
-                .intermediateStops(intermediateStops)
-                .availableTripsCount(0) // Will be set later
-                .availableTrips(List.of()) // Will be set later
-                .build();
+    private List<TripDTO> getAvailableTripsFromBusService(String origin, String destination, LocalDate travelDate) {
+        TripCacheKey key = TripCacheKey.of(origin, destination, travelDate != null ? travelDate : LocalDate.now());
+        try {
+            // Concurrent misses for the same key share one upstream call; failures are not cached.
+            // The key is normalized, bus-service still gets the city names as the caller sent them.
+            return tripAvailabilityCache.get(key, () -> fetchAvailableTrips(origin, destination, key.getDepartureDate()));
+        } catch (Exception e) {
+            log.error("❌ Error calling Bus Service: {}", e.getMessage());
+            return List.of();
+        }
     }
 
-    private RouteSearchResponseDTO createRouteSearchResponse(Route route, List<TripDTO> availableTrips) {
-        RouteSearchResponseDTO response = convertToSearchResponseDTO(route);
+    private List<TripDTO> fetchAvailableTrips(String origin, String destination, LocalDate travelDate) {
+        log.info("📞 Calling Bus Service via Feign: {} to {} on {}", origin, destination, travelDate);
 
-        // ✅ Add TripDTO list to response
-        response.setAvailableTrips(availableTrips);
-        response.setAvailableTripsCount(availableTrips.size());
+        // ✅ Convert LocalDate to String format that Bus Service expects
+        String departureDate = travelDate.atStartOfDay().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-        // ✅ Calculate additional summary information
-        if (!availableTrips.isEmpty()) {
-            response.setLowestFare(calculateLowestFare(availableTrips));
-            response.setHighestFare(calculateHighestFare(availableTrips));
-            response.setEarliestDeparture(findEarliestDeparture(availableTrips));
-            response.setLatestDeparture(findLatestDeparture(availableTrips));
-            response.setTotalAvailableSeats(calculateTotalAvailableSeats(availableTrips));
-        }
+        // ✅ Call Feign client with all required parameters
+        List<TripDTO> trips = busServiceClient.getAvailableTrips(origin, destination, departureDate);
+
+        log.info("✅ Successfully retrieved {} trips from Bus Service", trips != null ? trips.size() : 0);
+        return trips != null ? trips : List.of();
+    }
 
-        log.info("🔄 Combined route {} with {} trips", route.getRouteId(), availableTrips.size());
-        return response;
+    private List<RouteSearchResponseDTO> combine(List<RouteDTO> routes, List<TripDTO> availableTrips, String search) {
+        if (availableTrips == TRIPS_TIMED_OUT) {
+            log.warn("Bus Service did not answer within {}, continuing without trips", searchTripsTimeout);
+            searchMetrics.recordTripsTimeout(search);
+        }
+        searchMetrics.recordResults(search, routes.size(), availableTrips.size());
+        Map<String, TripIndex.RouteTrips> tripsByRoute = TripIndex.partition(routes, availableTrips);
+        return routes.stream()
+                .map(route -> {
+                    TripIndex.RouteTrips trips = tripsByRoute.getOrDefault(route.getRouteId(), TripIndex.RouteTrips.NONE);
+                    log.info("🔄 Combined route {} with {} trips", route.getRouteId(), trips.trips().size());
+                    RouteSearchResponseDTO response = RouteMapper.toSearchResponse(route, trips.trips());
+                    response.setPairLevelTrips(trips.pairLevel());
+                    return response;
+                })
+                .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public RouteStopDTO addStopToRoute(String routeId, RouteStopDTO stopDTO) {
         log.info("Adding stop to route: {}", routeId);
 
@@ -335,26 +614,30 @@ public class RouteServiceImpl implements RouteService {
                     return new RuntimeException("Route not found with ID: " + routeId);
                 });
 
-        RouteStop stop = convertToStopEntity(stopDTO, route);
+        RouteStop stop = RouteMapper.toStopEntity(stopDTO, route);
         RouteStop savedStop = routeStopRepository.save(stop);
+        touch(route);
+        publishChange(RouteChangeType.STOP_ADDED, route, savedStop.getStopId());
 
         log.info("Stop added successfully with ID: {}", savedStop.getStopId());
-        return convertToStopDTO(savedStop);
+        return RouteMapper.toStopDTO(savedStop);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<RouteStopDTO> getStopsByRoute(String routeId) {
         log.debug("Fetching stops for route: {}", routeId);
 
-        List<RouteStop> stops = routeStopRepository.findByRouteRouteIdAndIsActiveTrue(routeId);
+        List<RouteStop> stops = routeStopRepository.findByRouteRouteIdAndIsActiveTrueOrderByStopSequence(routeId);
         log.info("Found {} stops for route: {}", stops.size(), routeId);
 
         return stops.stream()
-                .map(this::convertToStopDTO)
+                .map(RouteMapper::toStopDTO)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional
     public RouteStopDTO updateRouteStop(String stopId, RouteStopDTO stopDTO) {
         log.info("Updating route stop: {}", stopId);
 
@@ -385,111 +668,186 @@ public class RouteServiceImpl implements RouteService {
         }
 
         RouteStop updatedStop = routeStopRepository.save(existingStop);
+        touch(updatedStop.getRoute());
+        publishChange(RouteChangeType.STOP_UPDATED, updatedStop.getRoute(), stopId);
         log.info("Route stop updated successfully with ID: {}", stopId);
 
-        return convertToStopDTO(updatedStop);
+        return RouteMapper.toStopDTO(updatedStop);
     }
 
     @Override
+    @Transactional
     public void removeStopFromRoute(String stopId) {
         log.info("Removing route stop: {}", stopId);
 
-        if (!routeStopRepository.existsById(stopId)) {
-            log.error("Route stop not found with ID: {}", stopId);
-            throw new RuntimeException("Route stop not found with ID: " + stopId);
-        }
+        RouteStop stop = routeStopRepository.findById(stopId)
+                .orElseThrow(() -> {
+                    log.error("Route stop not found with ID: {}", stopId);
+                    return new RuntimeException("Route stop not found with ID: " + stopId);
+                });
 
-        routeStopRepository.deleteById(stopId);
+        routeStopRepository.delete(stop);
+        touch(stop.getRoute());
+        publishChange(RouteChangeType.STOP_REMOVED, stop.getRoute(), stopId);
         log.info("Route stop removed successfully with ID: {}", stopId);
     }
 
     @Override
     public boolean routeExists(String originCity, String destinationCity) {
         log.debug("Checking if route exists from {} to {}", originCity, destinationCity);
-        return routeRepository.existsByOriginCityAndDestinationCity(originCity, destinationCity);
+        RouteSnapshot snapshot = routeSnapshotIndex.current();
+        if (snapshot != null) {
+            return snapshot.exists(originCity, destinationCity);
+        }
+        if (!routePairFilter.mightContain(originCity, destinationCity)) {
+            return false;
+        }
+        boolean exists = readOnly(() -> !findRoutes(originCity, destinationCity, false).isEmpty());
+        if (!exists) {
+            routePairFilter.recordFalsePositive();
+        }
+        return exists;
     }
 
     @Override
     public RouteDTO getRouteDetails(String originCity, String destinationCity) {
         log.debug("Getting route details from {} to {}", originCity, destinationCity);
 
-        List<Route> routes = routeRepository.findByOriginCityAndDestinationCity(originCity, destinationCity);
+        RouteSnapshot snapshot = routeSnapshotIndex.current();
+        if (snapshot != null) {
+            RouteDTO route = snapshot.details(originCity, destinationCity);
+            if (route == null) {
+                log.error("No route found from {} to {}", originCity, destinationCity);
+                throw new RuntimeException("No route found between specified cities");
+            }
+            return route;
+        }
+
+        List<RouteDTO> routes = readOnly(() -> findRoutes(originCity, destinationCity, false));
         if (routes.isEmpty()) {
             log.error("No route found from {} to {}", originCity, destinationCity);
             throw new RuntimeException("No route found between specified cities");
         }
 
         // Return the first active route, or first one if no active routes
-        Route route = routes.stream()
-                .filter(Route::getIsActive)
+        return routes.stream()
+                .filter(route -> Boolean.TRUE.equals(route.getIsActive()))
                 .findFirst()
                 .orElse(routes.get(0));
+    }
 
-        return convertToRouteDTO(route);
-    }
-
-    // Conversion methods
-    private Route convertToRouteEntity(RouteDTO routeDTO) {
-        return Route.builder()
-                .routeId(routeDTO.getRouteId())
-                .routeName(routeDTO.getRouteName())
-                .originCity(routeDTO.getOriginCity().toUpperCase())
-                .destinationCity(routeDTO.getDestinationCity().toUpperCase())
-                .totalDistance(routeDTO.getTotalDistance())
-                .estimatedDuration(routeDTO.getEstimatedDuration())
-                .routeDescription(routeDTO.getRouteDescription())
-                .isActive(routeDTO.getIsActive())
-                .createdAt(routeDTO.getCreatedAt())
-                .updatedAt(routeDTO.getUpdatedAt())
-                .build();
+    @Override
+    public List<CacheStatsDTO> getCacheStats() {
+        return List.of(routeLookupCache.stats(), tripAvailabilityCache.stats(), busServiceClient.lastKnownGoodStats());
     }
 
-    private RouteDTO convertToRouteDTO(Route route) {
-        List<RouteStopDTO> stopDTOs = route.getStops() != null ?
-                route.getStops().stream()
-                        .map(this::convertToStopDTO)
-                        .collect(Collectors.toList()) :
-                null;
+    @Override
+    public PairFilterStatsDTO getPairFilterStats() {
+        return routePairFilter.stats();
+    }
 
-        return RouteDTO.builder()
-                .routeId(route.getRouteId())
-                .routeName(route.getRouteName())
-                .originCity(route.getOriginCity())
-                .destinationCity(route.getDestinationCity())
-                .totalDistance(route.getTotalDistance())
-                .estimatedDuration(route.getEstimatedDuration())
-                .routeDescription(route.getRouteDescription())
-                .isActive(route.getIsActive())
-                .stops(stopDTOs)
-                .createdAt(route.getCreatedAt())
-                .updatedAt(route.getUpdatedAt())
-                .build();
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RouteVersionDTO> findRouteVersion(String routeId) {
+        return routeRepository.findVersionByRouteId(routeId)
+                .map(route -> RouteVersionDTO.builder()
+                        .etag(versionTag(route))
+                        .lastModified(route.getUpdatedAt() != null ? route.getUpdatedAt() : route.getCreatedAt())
+                        .build());
     }
 
-    private RouteStop convertToStopEntity(RouteStopDTO stopDTO, Route route) {
-        return RouteStop.builder()
-                .stopId(stopDTO.getStopId())
-                .route(route)
-                .cityName(stopDTO.getCityName().toUpperCase())
-                .stopSequence(stopDTO.getStopSequence())
-                .distanceFromOrigin(stopDTO.getDistanceFromOrigin())
-                .estimatedStopDuration(stopDTO.getEstimatedStopDuration())
-                .stopType(stopDTO.getStopType())
-                .isActive(stopDTO.getIsActive())
-                .build();
+    @Override
+    public Optional<RouteVersionDTO> findRouteDetailsVersion(String originCity, String destinationCity) {
+        RouteSnapshot snapshot = routeSnapshotIndex.current();
+        List<RouteVersionView> routes = snapshot != null ? snapshot.versions(originCity, destinationCity) :
+                readOnly(() -> routeRepository.findVersionsByCityKeys(
+                        CityNames.normalize(originCity), CityNames.normalize(destinationCity)));
+        if (routes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Details picks one of the pair's routes, so the tag covers all of them. No Last-Modified:
+        // removing one of the routes changes the answer without making anything newer.
+        StringBuilder tags = new StringBuilder();
+        for (RouteVersionView route : routes) {
+            tags.append(route.getRouteId()).append(':').append(versionTag(route)).append(';');
+        }
+        return Optional.of(RouteVersionDTO.builder()
+                .etag(DigestUtils.md5DigestAsHex(tags.toString().getBytes(StandardCharsets.UTF_8)))
+                .build());
     }
 
-    private RouteStopDTO convertToStopDTO(RouteStop stop) {
-        return RouteStopDTO.builder()
-                .stopId(stop.getStopId())
-                .routeId(stop.getRoute().getRouteId())
-                .cityName(stop.getCityName())
-                .stopSequence(stop.getStopSequence())
-                .distanceFromOrigin(stop.getDistanceFromOrigin())
-                .estimatedStopDuration(stop.getEstimatedStopDuration())
-                .stopType(stop.getStopType())
-                .isActive(stop.getIsActive())
-                .build();
+    // Creation time tells a re-created route apart from an earlier one with the same ID and version
+    private static String versionTag(RouteVersionView route) {
+        LocalDateTime createdAt = route.getCreatedAt();
+        return route.getVersion() + "-" +
+                Long.toHexString(createdAt != null ? createdAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0);
+    }
+
+    // Snapshot reads need no transaction, so only the database fallback of exists and details opens
+    // one; read-only, so it can be served by a replica like the other reads
+    private <T> T readOnly(Supplier<T> read) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> read.get());
+    }
+
+    // Stops are part of the route's representation: dirtying the route bumps its version at flush
+    private static void touch(Route route) {
+        route.setUpdatedAt(LocalDateTime.now());
+    }
+
+    // Cached lookup by city pair. Active-only lookups serve searches and are read as flat projection
+    // rows, so their DTOs hold only the fields search responses use (see RouteMapper.toSearchRouteDTOs);
+    // the others load complete routes with their stops.
+    private List<RouteDTO> findRoutes(String originCity, String destinationCity, boolean activeOnly) {
+        return routeLookupCache.get(RouteLookupKey.of(originCity, destinationCity, activeOnly), key -> {
+            if (key.isActiveOnly()) {
+                return List.copyOf(RouteMapper.toSearchRouteDTOs(
+                        routeRepository.findSearchRows(key.getOriginCity(), key.getDestinationCity())));
+            }
+            return routeRepository.findWithStopsByOriginCityKeyAndDestinationCityKey(
+                            key.getOriginCity(), key.getDestinationCity()).stream()
+                    .map(RouteMapper::toRouteDTO)
+                    .toList();
+        });
+    }
+
+    // Pairs already cached are served from the cache; the rest share one query
+    private Map<RouteLookupKey, List<RouteDTO>> findRoutesBatch(Set<RouteLookupKey> keys) {
+        return routeLookupCache.getAll(keys, missing -> {
+            Set<String> originCities = new HashSet<>();
+            Set<String> destinationCities = new HashSet<>();
+            Map<RouteLookupKey, List<RouteSearchRow>> rowsByKey = new HashMap<>();
+            for (RouteLookupKey key : missing) {
+                originCities.add(key.getOriginCity());
+                destinationCities.add(key.getDestinationCity());
+                rowsByKey.put(key, new ArrayList<>());
+            }
+
+            List<RouteSearchRow> rows = routeRepository.findSearchRowsIn(originCities, destinationCities);
+            for (RouteSearchRow row : rows) {
+                List<RouteSearchRow> pairRows = rowsByKey.get(
+                        new RouteLookupKey(row.originCityKey(), row.destinationCityKey(), true));
+                if (pairRows != null) {
+                    pairRows.add(row);
+                }
+            }
+
+            Map<RouteLookupKey, List<RouteDTO>> found = new HashMap<>();
+            rowsByKey.forEach((key, pairRows) -> found.put(key, List.copyOf(RouteMapper.toSearchRouteDTOs(pairRows))));
+            return found;
+        });
+    }
+
+    private void publishChange(RouteChangeType changeType, Route route, String stopId) {
+        eventPublisher.publishEvent(RouteChangedEvent.builder()
+                .changeType(changeType)
+                .routeId(route.getRouteId())
+                .stopId(stopId)
+                .originCity(route.getOriginCity())
+                .destinationCity(route.getDestinationCity())
+                .build());
     }
 
 }
\ No newline at end of file
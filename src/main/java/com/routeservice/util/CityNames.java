@@ -0,0 +1,15 @@
+package com.routeservice.util;
+
+import java.util.Locale;
+
+public final class CityNames {
+
+    private CityNames() {
+    }
+
+    // Routes and stops are stored upper-cased (see RouteServiceImpl#convertToRouteEntity),
+    // so every lookup key has to go through the same normalization.
+    public static String normalize(String cityName) {
+        return cityName != null ? cityName.trim().toUpperCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.routeservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void reloadsEntriesOnceTheyExpire() throws Exception {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>("test", 10, Duration.ofMillis(50));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", key -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.get("a", key -> loads.incrementAndGet())).isEqualTo(1);
+        Thread.sleep(60);
+        assertThat(cache.get("a", key -> loads.incrementAndGet())).isEqualTo(2);
+
+        assertThat(cache.stats().getHits()).isEqualTo(1L);
+        assertThat(cache.stats().getMisses()).isEqualTo(2L);
+        assertThat(cache.stats().getExpirations()).isEqualTo(1L);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryBeyondMaxSize() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 2, Duration.ofMinutes(1));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.getIfPresent("a"); // b is now the least recently used
+        cache.put("c", "C");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+        assertThat(cache.getIfPresent("c")).isEqualTo("C");
+        assertThat(cache.stats().getEvictions()).isEqualTo(1L);
+    }
+
+    @Test
+    void doesNotStoreAValueLoadedAcrossAnInvalidation() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, Duration.ofMinutes(1));
+
+        // The write commits (and invalidates) while the read of the old state is still loading
+        String loaded = cache.get("a", key -> {
+            cache.invalidate(key);
+            return "before the write";
+        });
+
+        assertThat(loaded).isEqualTo("before the write");
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.get("a", key -> "after the write")).isEqualTo("after the write");
+        assertThat(cache.getIfPresent("a")).isEqualTo("after the write");
+    }
+
+    @Test
+    void bulkLoadsOnlyMissingKeysAndHonoursInvalidations() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>("test", 10, Duration.ofMinutes(1));
+        cache.put("a", "A");
+
+        Map<String, String> result = cache.getAll(List.of("a", "b", "c"), missing -> {
+            assertThat(missing).containsExactly("b", "c");
+            cache.invalidateIf("c"::equals);
+            return Map.of("b", "B", "c", "C");
+        });
+
+        assertThat(result).containsOnly(Map.entry("a", "A"), Map.entry("b", "B"), Map.entry("c", "C"));
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("c")).isNull();
+    }
+}
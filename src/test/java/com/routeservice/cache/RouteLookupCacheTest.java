@@ -0,0 +1,66 @@
+package com.routeservice.cache;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteLookupCacheTest {
+
+    private final RouteLookupCache cache = new RouteLookupCache(100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void changeInvalidatesOnlyItsOwnCityPair() {
+        lookup("Pune", "Nagpur", true);
+        lookup("Pune", "Nagpur", false);
+        lookup("Pune", "Mumbai", true);
+        assertThat(loads).hasValue(3);
+
+        cache.onRouteChanged(change(RouteChangeType.STOP_ADDED, "pune", "NAGPUR"));
+
+        lookup("Pune", "Mumbai", true);
+        assertThat(loads).hasValue(3);
+        lookup("Pune", "Nagpur", true);
+        lookup("Pune", "Nagpur", false);
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void batchInvalidatesEveryPairInIt() {
+        lookup("Pune", "Nagpur", true);
+        lookup("Pune", "Mumbai", true);
+
+        cache.onRoutesChanged(new RouteBatchChangedEvent(List.of(
+                change(RouteChangeType.ROUTE_CREATED, "Pune", "Nagpur"),
+                change(RouteChangeType.ROUTE_CREATED, "Pune", "Mumbai"))));
+
+        lookup("Pune", "Nagpur", true);
+        lookup("Pune", "Mumbai", true);
+        assertThat(loads).hasValue(4);
+        assertThat(cache.stats().getInvalidations()).isEqualTo(2L);
+    }
+
+    private void lookup(String originCity, String destinationCity, boolean activeOnly) {
+        cache.get(RouteLookupKey.of(originCity, destinationCity, activeOnly), key -> {
+            loads.incrementAndGet();
+            return List.of(RouteDTO.builder().routeId(key.getOriginCity() + "-" + key.getDestinationCity()).build());
+        });
+    }
+
+    private static RouteChangedEvent change(RouteChangeType type, String originCity, String destinationCity) {
+        return RouteChangedEvent.builder()
+                .changeType(type)
+                .routeId("R1")
+                .originCity(originCity)
+                .destinationCity(destinationCity)
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.routeservice.cache;
+
+import com.routeservice.dto.PairFilterStatsDTO;
+import com.routeservice.dto.RouteChangeBatchDTO;
+import com.routeservice.dto.RouteChangeDTO;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.repository.projection.RouteKeyView;
+import com.routeservice.service.RouteChangeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoutePairFilterTest {
+
+    private final RouteRepository routeRepository = mock(RouteRepository.class);
+    private final RouteChangeService routeChangeService = mock(RouteChangeService.class);
+
+    @Test
+    void answersMaybeUntilLoadedThenRulesOutUnknownPairs() {
+        RoutePairFilter filter = filter(1000, 0.01);
+        when(routeRepository.findAllRouteKeys()).thenReturn(List.of(key("R1", "PUSAD", "PUNE")));
+
+        assertThat(filter.mightContain("Nagpur", "Mumbai")).isTrue();
+
+        filter.loadAll();
+        assertThat(filter.mightContain(" pusad", "Pune")).isTrue();
+        assertThat(filter.mightContain("Nagpur", "Mumbai")).isFalse();
+
+        filter.onRouteChanged(change(RouteChangeType.ROUTE_CREATED, "R2", "Nagpur", "Mumbai"));
+        assertThat(filter.mightContain("NAGPUR", "MUMBAI")).isTrue();
+    }
+
+    @Test
+    void picksUpRoutesCreatedThroughOtherNodesFromTheChangeLog() {
+        RoutePairFilter filter = filter(1000, 0.01);
+        when(routeChangeService.getLatestSequence()).thenReturn(7L);
+        when(routeRepository.findAllRouteKeys()).thenReturn(List.of(key("R1", "PUSAD", "PUNE")));
+        filter.loadAll();
+        assertThat(filter.mightContain("Nagpur", "Mumbai")).isFalse();
+
+        when(routeChangeService.getChanges(7L, null)).thenReturn(batch(9L, logged(RouteChangeType.ROUTE_CREATED, "R2", "Nagpur", "Mumbai")));
+        filter.checkForRemoteChanges();
+
+        assertThat(filter.mightContain("NAGPUR", "MUMBAI")).isTrue();
+        assertThat(filter.stats().getPairs()).isEqualTo(2);
+        verify(routeRepository, times(1)).findAllRouteKeys();
+
+        // Compacted past the filter: read everything again
+        when(routeChangeService.getChanges(9L, null)).thenReturn(RouteChangeBatchDTO.builder()
+                .changes(List.of()).nextSince(9L).hasMore(false).resyncRequired(true).build());
+        filter.checkForRemoteChanges();
+        verify(routeRepository, times(2)).findAllRouteKeys();
+    }
+
+    @Test
+    void rebuildsFromDatabaseOnceDeletionsAccumulate() {
+        RoutePairFilter filter = filter(1000, 0.01);
+        List<RouteKeyView> keys = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            keys.add(key("R" + i, "CITY-" + i, "PUNE"));
+        }
+        when(routeRepository.findAllRouteKeys()).thenReturn(keys);
+        filter.loadAll();
+
+        when(routeChangeService.getChanges(0L, null)).thenReturn(batch(2L,
+                logged(RouteChangeType.ROUTE_DELETED, "R0", null, null),
+                logged(RouteChangeType.ROUTE_DELETED, "R1", null, null)));
+        filter.checkForRemoteChanges();
+        verify(routeRepository, times(1)).findAllRouteKeys();
+
+        keys.subList(0, 3).clear();
+        when(routeChangeService.getChanges(2L, null)).thenReturn(batch(3L, logged(RouteChangeType.ROUTE_DELETED, "R2", null, null)));
+        filter.checkForRemoteChanges();
+
+        verify(routeRepository, times(2)).findAllRouteKeys();
+        assertThat(filter.mightContain("CITY-0", "PUNE")).isFalse();
+        assertThat(filter.mightContain("CITY-5", "PUNE")).isTrue();
+        assertThat(filter.stats().getPairs()).isEqualTo(5);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredTarget() {
+        RoutePairFilter filter = filter(10_000, 0.01);
+        List<RouteKeyView> keys = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            keys.add(key("R" + i, "ORIGIN-" + i, "DEST-" + i));
+        }
+        when(routeRepository.findAllRouteKeys()).thenReturn(keys);
+        filter.loadAll();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("ORIGIN-" + i, "DEST-" + i)).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("ORIGIN-" + i, "DEST-" + (i + 1))) {
+                falsePositives++;
+            }
+        }
+
+        PairFilterStatsDTO stats = filter.stats();
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(stats.getDefiniteNegatives()).isEqualTo(100_000 - falsePositives);
+    }
+
+    private RoutePairFilter filter(long expectedPairs, double fpp) {
+        RoutePairFilter filter = new RoutePairFilter(expectedPairs, fpp);
+        ReflectionTestUtils.setField(filter, "routeRepository", routeRepository);
+        ReflectionTestUtils.setField(filter, "routeChangeService", routeChangeService);
+        return filter;
+    }
+
+    private static RouteChangedEvent change(RouteChangeType type, String routeId, String origin, String destination) {
+        return RouteChangedEvent.builder()
+                .changeType(type)
+                .routeId(routeId)
+                .originCity(origin)
+                .destinationCity(destination)
+                .build();
+    }
+
+    // A deleted route is logged without its current state
+    private static RouteChangeDTO logged(RouteChangeType type, String routeId, String origin, String destination) {
+        return RouteChangeDTO.builder()
+                .changeType(type)
+                .routeId(routeId)
+                .route(origin != null ? RouteDTO.builder().routeId(routeId).originCity(origin).destinationCity(destination).build() : null)
+                .build();
+    }
+
+    private static RouteChangeBatchDTO batch(long nextSince, RouteChangeDTO... changes) {
+        return RouteChangeBatchDTO.builder()
+                .changes(List.of(changes))
+                .nextSince(nextSince)
+                .hasMore(false)
+                .resyncRequired(false)
+                .build();
+    }
+
+    private static RouteKeyView key(String routeId, String origin, String destination) {
+        return new RouteKeyView() {
+            @Override
+            public String getRouteId() {
+                return routeId;
+            }
+
+            @Override
+            public String getOriginCity() {
+                return origin;
+            }
+
+            @Override
+            public String getDestinationCity() {
+                return destination;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.routeservice.cache;
+
+import com.routeservice.dto.TripDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TripAvailabilityCacheTest {
+
+    private static final TripCacheKey KEY = TripCacheKey.of("pusad", "PUNE", LocalDate.of(2025, 1, 15));
+
+    @Test
+    void concurrentMissesShareOneUpstreamCall() throws Exception {
+        TripAvailabilityCache cache = new TripAvailabilityCache(
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 100, new SyncTaskExecutor());
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<TripDTO>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get(KEY, () -> {
+                    upstreamCalls.incrementAndGet();
+                    await(release);
+                    return List.of(TripDTO.builder().tripId("T1").build());
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<List<TripDTO>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).extracting(TripDTO::getTripId).containsExactly("T1");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(cache.stats().getCoalescedLoads()).isEqualTo(7L);
+    }
+
+    @Test
+    void servesStaleEntryWhileRefreshing() throws Exception {
+        TripAvailabilityCache cache = new TripAvailabilityCache(
+                Duration.ofMillis(1), Duration.ofMinutes(1), 100, new SyncTaskExecutor());
+
+        cache.get(KEY, () -> List.of(TripDTO.builder().tripId("OLD").build()));
+        Thread.sleep(5);
+
+        List<TripDTO> stale = cache.get(KEY, () -> List.of(TripDTO.builder().tripId("NEW").build()));
+        assertThat(stale).extracting(TripDTO::getTripId).containsExactly("OLD");
+        assertThat(cache.stats().getStaleHits()).isEqualTo(1L);
+
+        // The synchronous refresh executor has already replaced the entry
+        List<TripDTO> refreshed = cache.get(KEY, () -> List.of());
+        assertThat(refreshed).extracting(TripDTO::getTripId).containsExactly("NEW");
+    }
+
+    @Test
+    void doesNotCacheFailures() {
+        TripAvailabilityCache cache = new TripAvailabilityCache(
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 100, new SyncTaskExecutor());
+
+        assertThatThrownBy(() -> cache.get(KEY, () -> {
+            throw new IllegalStateException("bus-service down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(KEY, () -> List.of(TripDTO.builder().tripId("T1").build()))).hasSize(1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryBeyondMaxSize() {
+        TripAvailabilityCache cache = new TripAvailabilityCache(
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 2, new SyncTaskExecutor());
+        TripCacheKey a = TripCacheKey.of("Pusad", "Pune", LocalDate.of(2025, 1, 15));
+        TripCacheKey b = TripCacheKey.of("Pusad", "Nagpur", LocalDate.of(2025, 1, 15));
+        TripCacheKey c = TripCacheKey.of("Pusad", "Akola", LocalDate.of(2025, 1, 15));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(a, () -> List.of(TripDTO.builder().tripId("A").build()));
+        cache.get(b, () -> List.of(TripDTO.builder().tripId("B").build()));
+        cache.get(a, List::of); // b is now the least recently used
+        cache.get(c, () -> List.of(TripDTO.builder().tripId("C").build()));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1L);
+        assertThat(cache.get(a, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        })).extracting(TripDTO::getTripId).containsExactly("A");
+        cache.get(b, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.routeservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.routeservice.service.RouteChangeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Deletes are purged by any compaction here, so the resync signal can be tested
+@SpringBootTest(properties = "route.changes.compaction.tombstone-retention=0s")
+@AutoConfigureMockMvc
+class RouteChangeFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RouteChangeService routeChangeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void feedReturnsEachChangedRouteOnceWithItsCurrentState() throws Exception {
+        long since = latestSequence();
+
+        createRoute("FEED-1", "Feedpur", "Nagpur");
+        perform(post("/api/routes/FEED-1/stops").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stopId\":\"FEED-1-S1\",\"cityName\":\"Wardha\",\"stopSequence\":1,\"isActive\":true}"));
+        perform(put("/api/routes/stops/FEED-1-S1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stopType\":\"DROP\"}"));
+        perform(patch("/api/routes/FEED-1/deactivate"));
+        createRoute("FEED-2", "Feedpur", "Akola");
+        perform(delete("/api/routes/FEED-2"));
+
+        JsonNode batch = changes(since, null);
+        assertThat(batch.get("latestSequence").asLong()).isEqualTo(since + 6);
+        assertThat(batch.get("nextSince").asLong()).isEqualTo(since + 6);
+        assertThat(batch.get("hasMore").asBoolean()).isFalse();
+        assertThat(batch.get("resyncRequired").asBoolean()).isFalse();
+
+        JsonNode changes = batch.get("changes");
+        assertThat(changes).hasSize(2);
+        assertThat(changes.get(0).get("routeId").asText()).isEqualTo("FEED-1");
+        assertThat(changes.get(0).get("sequence").asLong()).isEqualTo(since + 4);
+        assertThat(changes.get(0).get("changeType").asText()).isEqualTo("ROUTE_DEACTIVATED");
+        assertThat(changes.get(0).get("route").get("isActive").asBoolean()).isFalse();
+        assertThat(changes.get(0).get("route").get("stops").get(0).get("stopType").asText()).isEqualTo("DROP");
+        assertThat(changes.get(1).get("routeId").asText()).isEqualTo("FEED-2");
+        assertThat(changes.get(1).get("changeType").asText()).isEqualTo("ROUTE_DELETED");
+        assertThat(changes.get(1).get("route").isNull()).isTrue();
+
+        JsonNode first = changes(since, 2);
+        assertThat(first.get("changes")).singleElement()
+                .satisfies(change -> assertThat(change.get("changeType").asText()).isEqualTo("STOP_ADDED"));
+        assertThat(first.get("hasMore").asBoolean()).isTrue();
+        assertThat(changes(first.get("nextSince").asLong(), 2).get("nextSince").asLong()).isEqualTo(since + 4);
+
+        assertThat(changes(since + 6, null).get("changes")).isEmpty();
+    }
+
+    @Test
+    void bulkImportIsRecordedWithItsChunk() throws Exception {
+        long since = latestSequence();
+
+        String routes = """
+                {"routeId":"FEED-BULK-1","routeName":"Bulk","originCity":"Feedbulk","destinationCity":"Pune"}
+                {"routeId":"FEED-BULK-2","routeName":"Bulk","originCity":"Feedbulk","destinationCity":"Nashik"}
+                """;
+        mockMvc.perform(post("/api/routes/bulk").contentType(MediaType.APPLICATION_NDJSON)
+                        .content(routes.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk());
+
+        JsonNode changes = changes(since, null).get("changes");
+        assertThat(changes).hasSize(2);
+        assertThat(changes.get(1).get("route").get("destinationCity").asText()).isEqualTo("NASHIK");
+    }
+
+    @Test
+    void compactionKeepsTheLatestEntryPerRouteAndFlagsReadersBehindPurgedDeletes() throws Exception {
+        long since = latestSequence();
+        createRoute("FEED-3", "Compactpur", "Nagpur");
+        perform(patch("/api/routes/FEED-3/deactivate"));
+        perform(patch("/api/routes/FEED-3/activate"));
+        createRoute("FEED-4", "Compactpur", "Akola");
+        perform(delete("/api/routes/FEED-4"));
+
+        routeChangeService.compact();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM route_change WHERE route_id IN ('FEED-3', 'FEED-4')",
+                Integer.class)).isEqualTo(1);
+        JsonNode after = changes(since, null);
+        assertThat(after.get("changes")).singleElement().satisfies(change -> {
+            assertThat(change.get("routeId").asText()).isEqualTo("FEED-3");
+            assertThat(change.get("sequence").asLong()).isEqualTo(since + 3);
+        });
+        assertThat(after.get("resyncRequired").asBoolean()).isTrue();
+        assertThat(changes(since + 5, null).get("resyncRequired").asBoolean()).isFalse();
+    }
+
+    private long latestSequence() throws Exception {
+        return changes(0, 1).get("latestSequence").asLong();
+    }
+
+    private JsonNode changes(long since, Integer limit) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/routes/changes").param("since", Long.toString(since));
+        if (limit != null) {
+            request.param("limit", limit.toString());
+        }
+        byte[] body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readTree(new ByteArrayInputStream(body));
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+    }
+
+    private void createRoute(String routeId, String originCity, String destinationCity) throws Exception {
+        perform(post("/api/routes").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"routeId\":\"" + routeId + "\",\"routeName\":\"Feed\",\"originCity\":\"" +
+                        originCity + "\",\"destinationCity\":\"" + destinationCity +
+                        "\",\"totalDistance\":100,\"isActive\":true}"));
+    }
+}
@@ -0,0 +1,152 @@
+package com.routeservice.controller;
+
+import com.routeservice.entity.Route;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class RouteConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void unchangedRouteIsAnsweredWith304FromVersionLookup() throws Exception {
+        createRoute("ETAG-1", "Etagpur", "Nagpur");
+
+        String etag = mockMvc.perform(get("/api/routes/ETAG-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"0-");
+
+        statistics.clear();
+        mockMvc.perform(get("/api/routes/ETAG-1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        mockMvc.perform(get("/api/routes/ETAG-1/stops").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void stopChangesBumpTheRouteVersion() throws Exception {
+        createRoute("ETAG-2", "Versionpur", "Nagpur");
+        String etag = mockMvc.perform(get("/api/routes/ETAG-2/stops"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String detailsEtag = mockMvc.perform(get("/api/routes/details")
+                        .param("origin", "versionpur").param("destination", "nagpur"))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(post("/api/routes/ETAG-2/stops").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stopId\":\"ETAG-2-S1\",\"cityName\":\"Wardha\",\"stopSequence\":1,\"isActive\":true}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/routes/ETAG-2/stops").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].cityName").value("WARDHA"));
+        mockMvc.perform(get("/api/routes/details").header(HttpHeaders.IF_NONE_MATCH, detailsEtag)
+                        .param("origin", "versionpur").param("destination", "nagpur"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(put("/api/routes/stops/ETAG-2-S1").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stopType\":\"DROP\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/routes/ETAG-2"))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    void aWriterWorkingFromAnOlderReadStillWinsWithANewVersion() throws Exception {
+        createRoute("ETAG-4", "Racepur", "Nagpur");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Route stale = entityManager.find(Route.class, "ETAG-4");
+            // Another request changes the route and commits in between
+            CompletableFuture.runAsync(() -> {
+                try {
+                    mockMvc.perform(put("/api/routes/ETAG-4").contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"routeName\":\"First\"}"))
+                            .andExpect(status().isOk());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).join();
+            stale.setRouteName("Second");
+        });
+
+        mockMvc.perform(get("/api/routes/ETAG-4"))
+                .andExpect(jsonPath("$.routeName").value("Second"))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    void smileAndJsonBodiesHaveDifferentEtags() throws Exception {
+        createRoute("ETAG-3", "Smilepur", "Nagpur");
+
+        String json = mockMvc.perform(get("/api/routes/ETAG-3").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String smile = mockMvc.perform(get("/api/routes/ETAG-3").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(smile).isNotEqualTo(json);
+        mockMvc.perform(get("/api/routes/ETAG-3").accept("application/x-jackson-smile")
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk());
+    }
+
+    private void createRoute(String routeId, String originCity, String destinationCity) throws Exception {
+        mockMvc.perform(post("/api/routes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"routeId\":\"" + routeId + "\",\"routeName\":\"Conditional\",\"originCity\":\"" +
+                                originCity + "\",\"destinationCity\":\"" + destinationCity +
+                                "\",\"totalDistance\":100,\"isActive\":true}"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,134 @@
+package com.routeservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RouteExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void createRoutes() throws Exception {
+        perform(post("/api/routes").contentType(MediaType.APPLICATION_JSON).content(
+                "{\"routeId\":\"XPORT-1\",\"routeName\":\"Export 1\",\"originCity\":\"Exportpur\"," +
+                        "\"destinationCity\":\"Nagpur\",\"totalDistance\":100,\"isActive\":true}"));
+        perform(post("/api/routes/XPORT-1/stops").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stopId\":\"XPORT-1-S2\",\"cityName\":\"Amravati\",\"stopSequence\":2,\"isActive\":true}"));
+        perform(post("/api/routes/XPORT-1/stops").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stopId\":\"XPORT-1-S1\",\"cityName\":\"Wardha\",\"stopSequence\":1,\"isActive\":true}"));
+        perform(post("/api/routes").contentType(MediaType.APPLICATION_JSON).content(
+                "{\"routeId\":\"XPORT-2\",\"routeName\":\"Export 2\",\"originCity\":\"Exportpur\"," +
+                        "\"destinationCity\":\"Akola\",\"totalDistance\":50,\"isActive\":false}"));
+    }
+
+    @Test
+    void writesOneLinePerRouteWithItsStopsInOrder() throws Exception {
+        MvcResult result = export(get("/api/routes/export").param("after", "XPORT-"));
+        assertThat(result.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+
+        List<JsonNode> routes = exportedRoutes(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertThat(routes).extracting(route -> route.get("routeId").asText()).containsExactly("XPORT-1", "XPORT-2");
+        assertThat(routes.get(0).get("stops")).extracting(stop -> stop.get("stopId").asText())
+                .containsExactly("XPORT-1-S1", "XPORT-1-S2");
+        assertThat(routes.get(1).get("stops")).isEmpty();
+        assertThat(routes.get(1).get("isActive").asBoolean()).isFalse();
+
+        MvcResult afterFirst = export(get("/api/routes/export").param("after", "XPORT-1"));
+        assertThat(exportedRoutes(afterFirst.getResponse().getContentAsString(StandardCharsets.UTF_8)))
+                .extracting(route -> route.get("routeId").asText()).containsExactly("XPORT-2");
+    }
+
+    @Test
+    void compressesWhenTheClientAcceptsGzip() throws Exception {
+        MvcResult result = export(get("/api/routes/export").param("after", "XPORT-")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+        assertThat(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+
+        byte[] body;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            body = in.readAllBytes();
+        }
+        assertThat(exportedRoutes(new String(body, StandardCharsets.UTF_8)))
+                .extracting(route -> route.get("routeId").asText()).containsExactly("XPORT-1", "XPORT-2");
+    }
+
+    @Test
+    void doesNotCompressWhenTheClientRefusesGzip() throws Exception {
+        MvcResult refused = export(get("/api/routes/export").param("after", "XPORT-")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"));
+        assertThat(refused.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(exportedRoutes(refused.getResponse().getContentAsString(StandardCharsets.UTF_8))).hasSize(2);
+
+        MvcResult wildcard = export(get("/api/routes/export").param("after", "XPORT-")
+                .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, *;q=0.5"));
+        assertThat(wildcard.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void runsUnderTheExportTimeout() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/routes/export").param("after", "XPORT-"))
+                .andExpect(request().asyncStarted()).andReturn();
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    private MvcResult export(MockHttpServletRequestBuilder exportRequest) throws Exception {
+        MvcResult started = mockMvc.perform(exportRequest).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+    }
+
+    // Other tests share the database, so only this test's routes are looked at
+    private List<JsonNode> exportedRoutes(String body) throws IOException {
+        assertThat(body).endsWith("\n");
+        List<JsonNode> routes = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            JsonNode route = objectMapper.readTree(line);
+            if (route.get("routeId").asText().startsWith("XPORT-")) {
+                routes.add(route);
+            }
+        }
+        return routes;
+    }
+
+    private void perform(MockHttpServletRequestBuilder request) throws Exception {
+        int status = mockMvc.perform(request).andReturn().getResponse().getStatus();
+        assertThat(status).as(request.toString()).isBetween(200, 299);
+    }
+}
@@ -0,0 +1,140 @@
+package com.routeservice.controller;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.TripDTO;
+import com.routeservice.feign.BusServiceFeignClient;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.service.RouteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /search/available with a route lookup or bus-service call that does not answer in time, and
+ * with every search thread busy. Slow calls block until the end of the test.
+ */
+@SpringBootTest(properties = {
+        "route.search.db-timeout=300ms",
+        "route.search.trips-timeout=300ms",
+        "route.search.executor.threads=2",
+        "route.search.executor.queue=0"
+})
+@AutoConfigureMockMvc
+class RouteSearchTimeoutTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    @Qualifier("searchExecutor")
+    private ThreadPoolTaskExecutor searchExecutor;
+
+    @MockitoSpyBean
+    private RouteRepository routeRepository;
+
+    @MockitoBean
+    private BusServiceFeignClient busServiceFeignClient;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseSlowCalls() throws InterruptedException {
+        release.countDown();
+        awaitActiveSearchThreads(0);
+    }
+
+    @Test
+    void slowRouteLookupAnswers504() throws Exception {
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(routeRepository).findSearchRows(eq("SLOWDB"), any());
+
+        search("Slowdb").andExpect(status().isGatewayTimeout());
+    }
+
+    @Test
+    void slowBusServiceAnswersWithRoutesButNoTrips() throws Exception {
+        routeService.createRoute(RouteDTO.builder()
+                .routeId("SLOWBUS-1")
+                .routeName("Slow bus")
+                .originCity("Slowbus")
+                .destinationCity("Nagpur")
+                .totalDistance(BigDecimal.TEN)
+                .isActive(true)
+                .build());
+        when(busServiceFeignClient.getAvailableTrips(eq("Slowbus"), any(), any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of(TripDTO.builder().tripId("LATE").build());
+        });
+
+        search("Slowbus")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].routeId").value("SLOWBUS-1"))
+                .andExpect(jsonPath("$[0].availableTripsCount").value(0));
+    }
+
+    @Test
+    void saturatedSearchExecutorAnswers503() throws Exception {
+        // One search holds both threads: its route lookup and its bus-service call block
+        doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(routeRepository).findSearchRows(eq("BUSYPUR"), any());
+        when(busServiceFeignClient.getAvailableTrips(eq("Busypur"), any(), any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        mockMvc.perform(get("/api/routes/search/available").param("origin", "Busypur").param("destination", "Nagpur"))
+                .andExpect(request().asyncStarted());
+        awaitActiveSearchThreads(2);
+
+        search("Elsewhere").andExpect(status().isServiceUnavailable());
+    }
+
+    private ResultActions search(String origin) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/routes/search/available")
+                        .param("origin", origin)
+                        .param("destination", "Nagpur")
+                        .param("travelDate", "2025-01-15"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private void awaitActiveSearchThreads(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (searchExecutor.getActiveCount() != count) {
+            assertThat(System.nanoTime()).as("%d active search threads", count).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
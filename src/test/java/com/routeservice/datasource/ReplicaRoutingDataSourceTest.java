@@ -0,0 +1,154 @@
+package com.routeservice.datasource;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.service.RouteService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Primary and replica are two separate embedded databases. The replica gets the primary's schema
+ * but none of its writes, so where a route can be read from shows which database served the read.
+ */
+@SpringBootTest(properties = {
+        "route.datasource.replicas.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL + ";IFEXISTS=TRUE",
+        "route.datasource.replicas.lag-query=SELECT lag_seconds FROM replica_lag",
+        "route.datasource.replicas.max-lag=5s",
+        "route.datasource.replicas.read-after-write=500ms",
+        "route.datasource.replicas.check-interval=1h"
+})
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:route_service_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate; // regular transactions, so always the primary
+
+    @BeforeEach
+    void startReplica() throws Exception {
+        JdbcTemplate replica = replica();
+        replica.execute("DROP ALL OBJECTS");
+        List<String> schema = jdbcTemplate.queryForList("SCRIPT NODATA", String.class);
+        for (String statement : schema) {
+            if (statement.startsWith("CREATE MEMORY TABLE") || statement.startsWith("CREATE CACHED TABLE") ||
+                    statement.startsWith("ALTER TABLE") || statement.startsWith("CREATE INDEX")) {
+                replica.execute(statement);
+            }
+        }
+        replica.execute("CREATE TABLE replica_lag (lag_seconds BIGINT)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replica.update("INSERT INTO route (route_id, route_name, origin_city, destination_city, is_active, created_at) " +
+                "VALUES ('REPLICA-ONLY', 'Replica', 'A', 'B', TRUE, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("MERGE INTO route (route_id, route_name, origin_city, destination_city, is_active, created_at) " +
+                "KEY (route_id) VALUES ('PRIMARY-ONLY', 'Primary', 'A', 'B', TRUE, CURRENT_TIMESTAMP)");
+
+        Thread.sleep(600); // past the read-after-write window of earlier tests' writes
+        // The replica pool retries a database that was missing at startup with a backoff, so give it time to connect
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        do {
+            replicaRoutingDataSource.checkReplicas();
+        } while (replicaRoutingDataSource.healthyReplicas() == 0 && System.nanoTime() < deadline);
+        assertThat(replicaRoutingDataSource.healthyReplicas()).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyMethodsReadFromTheReplica() {
+        assertThat(routeService.getRouteById("REPLICA-ONLY").getRouteName()).isEqualTo("Replica");
+        assertThatThrownBy(() -> routeService.getRouteById("PRIMARY-ONLY")).hasMessageContaining("Route not found");
+    }
+
+    @Test
+    void readsItsOwnWritesFromThePrimary() throws Exception {
+        routeService.createRoute(RouteDTO.builder()
+                .routeId("RW-1")
+                .routeName("Written")
+                .originCity("Replicapur")
+                .destinationCity("Writeville")
+                .totalDistance(BigDecimal.TEN)
+                .isActive(true)
+                .build());
+
+        assertThat(routeService.getRouteById("RW-1").getRouteName()).isEqualTo("Written");
+
+        Thread.sleep(600);
+        assertThatThrownBy(() -> routeService.getRouteById("RW-1")).hasMessageContaining("Route not found");
+    }
+
+    @Test
+    void laggingReplicaIsTakenOutOfRotation() {
+        replica().update("UPDATE replica_lag SET lag_seconds = 30");
+        replicaRoutingDataSource.checkReplicas();
+
+        assertThat(replicaRoutingDataSource.healthyReplicas()).isZero();
+        assertThat(routeService.getRouteById("PRIMARY-ONLY").getRouteName()).isEqualTo("Primary");
+
+        replica().update("UPDATE replica_lag SET lag_seconds = 1");
+        replicaRoutingDataSource.checkReplicas();
+        assertThat(routeService.getRouteById("REPLICA-ONLY").getRouteName()).isEqualTo("Replica");
+    }
+
+    @Test
+    void failsOverToThePrimaryWhenTheReplicaGoesAway() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        Thread.sleep(600); // pooled connections idle this long are validated before reuse
+
+        assertThat(routeService.getRouteById("PRIMARY-ONLY").getRouteName()).isEqualTo("Primary");
+        assertThat(replicaRoutingDataSource.healthyReplicas()).isZero();
+    }
+
+    @Test
+    void handsOutConnectionsForTheConfiguredCredentialsOnly() throws Exception {
+        try (Connection connection = replicaRoutingDataSource.getConnection("sa", "")) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+        assertThatThrownBy(() -> replicaRoutingDataSource.getConnection("someone-else", "secret"))
+                .isInstanceOf(SQLException.class);
+    }
+
+    @Test
+    void withoutALagQueryAReplicaThatCannotReportItsLagServesNoReads() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(REPLICA_URL + ";IFEXISTS=TRUE");
+        replica.setUsername("sa");
+        replica.setPassword("");
+        try (ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(replica, List.of(replica),
+                Duration.ofSeconds(5), Duration.ZERO, "", Duration.ofHours(1), new SimpleMeterRegistry())) {
+            // H2 has no SHOW REPLICA STATUS, so the replica's lag is unknown
+            assertThat(dataSource.healthyReplicas()).isZero();
+        }
+    }
+
+    // Also (re)creates the replica database, which the replica pool itself is not allowed to do
+    private static JdbcTemplate replica() {
+        try {
+            return new JdbcTemplate(new SingleConnectionDataSource(DriverManager.getConnection(REPLICA_URL, "sa", ""), true));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
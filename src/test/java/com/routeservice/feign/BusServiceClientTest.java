@@ -0,0 +1,159 @@
+package com.routeservice.feign;
+
+import com.routeservice.dto.TripDTO;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BusServiceClientTest {
+
+    private final BusServiceFeignClient feignClient = mock(BusServiceFeignClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService hedgeExecutor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    @Test
+    void servesLastKnownGoodWhileTheBreakerIsOpen() {
+        BusServiceClient client = client(false);
+        List<TripDTO> trips = List.of(TripDTO.builder().tripId("T1").build());
+        when(feignClient.getAvailableTrips(eq("PUSAD"), anyString(), anyString()))
+                .thenReturn(trips)
+                .thenThrow(new IllegalStateException("bus-service down"));
+        when(feignClient.getAvailableTrips(eq("NAGPUR"), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("bus-service down"));
+
+        assertThat(client.getAvailableTrips("PUSAD", "PUNE", "2025-01-15T00:00:00")).isEqualTo(trips);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.getAvailableTrips("NAGPUR", "PUNE", "2025-01-15T00:00:00"))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        // 3 of 4 calls failed: the breaker is open and bus-service is no longer called
+        assertThat(client.getAvailableTrips("PUSAD", "PUNE", "2025-01-15T00:00:00")).isEqualTo(trips);
+        assertThatThrownBy(() -> client.getAvailableTrips("NAGPUR", "PUNE", "2025-01-15T00:00:00"))
+                .isInstanceOf(CallNotPermittedException.class);
+        verify(feignClient, times(4)).getAvailableTrips(anyString(), anyString(), anyString());
+        assertThat(meterRegistry.get("bus.service.fallbacks").tag("result", "last-known-good").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void hedgesCallsSlowerThanTheRecentP95() {
+        BusServiceClient client = client(true);
+        List<TripDTO> trips = List.of(TripDTO.builder().tripId("T1").build());
+        AtomicInteger calls = new AtomicInteger();
+        when(feignClient.getAvailableTrips(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 31) {
+                Thread.sleep(3_000); // the first attempt of the 31st call hangs
+            }
+            return trips;
+        });
+        for (int i = 0; i < 30; i++) {
+            client.getAvailableTrips("PUSAD", "PUNE", "2025-01-15T00:00:00");
+        }
+
+        long start = System.nanoTime();
+        assertThat(client.getAvailableTrips("PUSAD", "PUNE", "2025-01-15T00:00:00")).isEqualTo(trips);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(meterRegistry.get("bus.service.hedges").tag("result", "won").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void aLongHealthySpellDoesNotBankHedges() {
+        HedgeBudget budget = new HedgeBudget(0.1, 3);
+        for (int i = 0; i < 10_000; i++) {
+            budget.recordCall();
+        }
+
+        // Only the burst is available, after that one hedge per ten calls
+        for (int i = 0; i < 3; i++) {
+            assertThat(budget.tryAcquire()).isTrue();
+        }
+        assertThat(budget.tryAcquire()).isFalse();
+        for (int i = 0; i < 9; i++) {
+            budget.recordCall();
+        }
+        assertThat(budget.tryAcquire()).isFalse();
+        budget.recordCall();
+        assertThat(budget.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void appliesPerMethodTimeouts() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("bus-service.timeouts.getAvailableTrips.connect", "250ms")
+                .withProperty("bus-service.timeouts.getAvailableTrips.read", "2s");
+        AtomicReference<Request.Options> used = new AtomicReference<>();
+        Client capturing = (request, options) -> {
+            used.set(options);
+            return Response.builder().status(200).request(request).headers(Map.of()).build();
+        };
+        Client client = new BusServiceTimeouts(environment).enrich(capturing);
+        Request.Options defaults = new Request.Options(1, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true);
+
+        client.execute(request("getAvailableTrips"), defaults);
+        assertThat(used.get().connectTimeoutMillis()).isEqualTo(250);
+        assertThat(used.get().readTimeoutMillis()).isEqualTo(2000);
+
+        client.execute(request("getTripsByRoute"), defaults);
+        assertThat(used.get()).isSameAs(defaults);
+    }
+
+    private BusServiceClient client(boolean hedgeEnabled) {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("bus-service", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        return new BusServiceClient(feignClient, circuitBreaker, hedgeExecutor, meterRegistry, hedgeEnabled,
+                Duration.ofMillis(20), Duration.ofMillis(100), 1.0, 10, 100, Duration.ofHours(1));
+    }
+
+    private static Request request(String methodName) {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(BusServiceFeignClient.class).stream()
+                .filter(m -> m.method().getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        return new RequestTemplate()
+                .method(Request.HttpMethod.GET)
+                .target("http://localhost")
+                .uri("/trips")
+                .methodMetadata(metadata)
+                .resolve(Map.of())
+                .request();
+    }
+}
@@ -0,0 +1,145 @@
+package com.routeservice.feign;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.routeservice.dto.TripDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.cloud.openfeign.compression.response.enabled=true")
+class BusServiceTransportTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final ObjectMapper SMILE = SmileMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static HttpServer busService;
+    private static volatile boolean smileSupported;
+    private static volatile String lastAccept;
+    private static volatile String lastAcceptEncoding;
+
+    @Autowired
+    private BusServiceFeignClient feignClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startBusService() throws IOException {
+        busService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        busService.createContext("/bus-service/api/trips/available", BusServiceTransportTest::trips);
+        busService.start();
+    }
+
+    @AfterAll
+    static void stopBusService() {
+        busService.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void busServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("bus-service.url", () -> "http://localhost:" + busService.getAddress().getPort());
+    }
+
+    @BeforeEach
+    void reset() {
+        smileSupported = true;
+        lastAccept = null;
+        lastAcceptEncoding = null;
+    }
+
+    @Test
+    void tripsAreFetchedAsGzippedSmile() {
+        List<TripDTO> trips = feignClient.getAvailableTrips("PUNE", "MUMBAI", "2025-01-15");
+
+        assertThat(lastAccept).startsWith("application/x-jackson-smile");
+        assertThat(lastAcceptEncoding).contains("gzip");
+        assertThat(trips).hasSize(50);
+        assertThat(trips.get(7).getTripId()).isEqualTo("T7");
+        assertThat(trips.get(7).getDepartureDateTime()).isEqualTo(LocalDateTime.of(2025, 1, 15, 7, 0));
+        assertThat(trips.get(7).getBaseFareAmount()).isEqualByComparingTo("457");
+
+        DistributionSummary wireBytes = meterRegistry.get("feign.client.response.bytes")
+                .tag("content.type", "application/x-jackson-smile")
+                .tag("content.encoding", "gzip")
+                .summary();
+        assertThat(wireBytes.count()).isPositive();
+        assertThat(wireBytes.totalAmount()).isPositive();
+        assertThat(meterRegistry.find("httpcomponents.httpclient.pool.total.max").tag("httpclient", "feign").gauge())
+                .isNotNull();
+    }
+
+    @Test
+    void jsonOnlyBusServiceIsStillUnderstood() {
+        smileSupported = false;
+
+        List<TripDTO> trips = feignClient.getAvailableTrips("PUNE", "MUMBAI", "2025-01-15");
+
+        assertThat(trips).hasSize(50);
+        assertThat(trips.get(0).getDepartureDateTime()).isEqualTo(LocalDateTime.of(2025, 1, 15, 0, 0));
+        assertThat(meterRegistry.get("feign.client.response.bytes")
+                .tag("content.type", "application/json")
+                .summary().count()).isPositive();
+    }
+
+    private static void trips(HttpExchange exchange) throws IOException {
+        lastAccept = exchange.getRequestHeaders().getFirst("Accept");
+        lastAcceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+
+        List<TripDTO> trips = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            trips.add(TripDTO.builder()
+                    .tripId("T" + i)
+                    .originCity("PUNE")
+                    .destinationCity("MUMBAI")
+                    .departureDateTime(LocalDateTime.of(2025, 1, 15, i % 24, 0))
+                    .baseFareAmount(BigDecimal.valueOf(450 + i))
+                    .availableSeats(40)
+                    .build());
+        }
+
+        boolean smile = smileSupported && lastAccept != null && lastAccept.contains("application/x-jackson-smile");
+        byte[] body = smile ? SMILE.writeValueAsBytes(trips) : JSON.writeValueAsBytes(trips);
+        exchange.getResponseHeaders().add("Content-Type", smile ? "application/x-jackson-smile" : "application/json");
+        if (lastAcceptEncoding != null && lastAcceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(body);
+            }
+            body = gzipped.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.routeservice.graph;
+
+import com.routeservice.dto.JourneyDTO;
+import com.routeservice.dto.JourneyMetric;
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+import com.routeservice.event.RouteBatchChangedEvent;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RouteGraphTest {
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RouteGraph routeGraph;
+
+    @BeforeEach
+    void setUp() {
+        Route pusadNagpur = route("R1", "PUSAD", "NAGPUR", 200, 4);
+        Route nagpurPune = route("R2", "NAGPUR", "PUNE", 700, 12, stop("S1", "AMRAVATI", 1, 150));
+        Route amravatiPune = route("R3", "AMRAVATI", "PUNE", 500, 11);
+        Route puneMumbai = route("R4", "PUNE", "MUMBAI", 150, 3);
+
+        when(routeRepository.findWithStopsByIsActiveTrue())
+                .thenReturn(List.of(pusadNagpur, nagpurPune, amravatiPune, puneMumbai));
+        routeGraph.loadAll();
+    }
+
+    @Test
+    void findsOneTransferJourneyWhenNoDirectRouteExists() {
+        List<JourneyDTO> journeys = routeGraph.findJourneys("Pusad", "pune", 1, JourneyMetric.DISTANCE);
+
+        assertThat(journeys).hasSize(1);
+        JourneyDTO journey = journeys.get(0);
+        assertThat(journey.getTransfers()).isEqualTo(1);
+        assertThat(journey.getTotalDistance()).isEqualTo(900.0);
+        assertThat(journey.getLegs()).extracting("routeId").containsExactly("R1", "R2");
+    }
+
+    @Test
+    void reportsLongerJourneysOnlyWhenTheyAreCheaper() {
+        List<JourneyDTO> journeys = routeGraph.findJourneys("PUSAD", "PUNE", 2, JourneyMetric.DISTANCE);
+
+        assertThat(journeys).extracting(JourneyDTO::getTransfers).containsExactly(1, 2);
+        assertThat(journeys).extracting(JourneyDTO::getTotalDistance).containsExactly(900.0, 850.0);
+        assertThat(journeys.get(1).getLegs()).extracting("routeId").containsExactly("R1", "R2", "R3");
+    }
+
+    @Test
+    void boardsAtIntermediateStopsAndRespectsTransferLimit() {
+        List<JourneyDTO> journeys = routeGraph.findJourneys("PUSAD", "MUMBAI", 2, JourneyMetric.DISTANCE);
+
+        assertThat(journeys).hasSize(1);
+        assertThat(journeys.get(0).getTransfers()).isEqualTo(2);
+        assertThat(journeys.get(0).getLegs()).extracting("toCity").containsExactly("NAGPUR", "PUNE", "MUMBAI");
+
+        assertThat(routeGraph.findJourneys("PUSAD", "MUMBAI", 1, JourneyMetric.DISTANCE)).isEmpty();
+    }
+
+    @Test
+    void optimizesByRequestedMetric() {
+        // NAGPUR -> PUNE: R2 direct is 700 km / 12 h, R2 to AMRAVATI then R3 is 650 km / ~13.5 h
+        List<JourneyDTO> byDistance = routeGraph.findJourneys("NAGPUR", "PUNE", 1, JourneyMetric.DISTANCE);
+        List<JourneyDTO> byDuration = routeGraph.findJourneys("NAGPUR", "PUNE", 1, JourneyMetric.DURATION);
+
+        assertThat(byDistance).extracting(JourneyDTO::getTransfers).containsExactly(0, 1);
+        assertThat(byDistance.get(1).getTotalDistance()).isEqualTo(650.0);
+        assertThat(byDuration).extracting(JourneyDTO::getTransfers).containsExactly(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        routeGraph.shutdown();
+    }
+
+    @Test
+    void dropsDeletedRouteIncrementally() throws Exception {
+        routeGraph.onRouteChanged(RouteChangedEvent.builder()
+                .changeType(RouteChangeType.ROUTE_DELETED)
+                .routeId("R1")
+                .build());
+
+        // The builder thread reloads R1, which is gone, and swaps in the recompiled graph
+        awaitJourneys("PUSAD", "PUNE", 0);
+        verify(routeRepository).findWithStopsByRouteIdInOrderByRouteId(Set.of("R1"));
+    }
+
+    @Test
+    void reloadsChangedRoutesOffTheCallingThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> loadedOn = new AtomicReference<>();
+        when(routeRepository.findWithStopsByRouteIdInOrderByRouteId(Set.of("R5"))).thenAnswer(invocation -> {
+            loadedOn.set(Thread.currentThread());
+            return List.of(route("R5", "MUMBAI", "SURAT", 300, 6));
+        });
+
+        routeGraph.onRoutesChanged(new RouteBatchChangedEvent(List.of(RouteChangedEvent.builder()
+                .changeType(RouteChangeType.ROUTE_CREATED)
+                .routeId("R5")
+                .build())));
+
+        awaitJourneys("MUMBAI", "SURAT", 1);
+        assertThat(loadedOn.get()).isNotNull().isNotSameAs(caller);
+    }
+
+    private void awaitJourneys(String origin, String destination, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (routeGraph.findJourneys(origin, destination, 2, JourneyMetric.DISTANCE).size() != expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(routeGraph.findJourneys(origin, destination, 2, JourneyMetric.DISTANCE)).hasSize(expected);
+    }
+
+    private static Route route(String id, String origin, String destination, int km, int hours, RouteStop... stops) {
+        Route route = Route.builder()
+                .routeId(id)
+                .routeName(origin + "-" + destination)
+                .originCity(origin)
+                .destinationCity(destination)
+                .totalDistance(BigDecimal.valueOf(km))
+                .estimatedDuration(BigDecimal.valueOf(hours))
+                .stops(new ArrayList<>(List.of(stops)))
+                .build();
+        route.getStops().forEach(stop -> stop.setRoute(route));
+        return route;
+    }
+
+    private static RouteStop stop(String id, String city, int sequence, int km) {
+        return RouteStop.builder()
+                .stopId(id)
+                .cityName(city)
+                .stopSequence(sequence)
+                .distanceFromOrigin(BigDecimal.valueOf(km))
+                .build();
+    }
+}
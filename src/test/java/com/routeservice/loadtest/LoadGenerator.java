@@ -0,0 +1,236 @@
+package com.routeservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.routeservice.dto.BulkImportResultDTO;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteStopDTO;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load against a running route service: {@code concurrency} workers each send the
+ * next request as soon as the previous one completed. Reads are searches for seeded city pairs
+ * over the next two weeks (a few for pairs without routes) and existence checks; writes update
+ * seeded routes or create new ones. Latencies of the warm-up period are discarded.
+ */
+public final class LoadGenerator {
+
+    enum Operation {
+        SEARCH_AVAILABLE, ROUTE_EXISTS, UPDATE_ROUTE, CREATE_ROUTE
+    }
+
+    private static final int ORIGINS = 50;
+    private static final double UNKNOWN_PAIR_RATE = 0.05;
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final List<RouteDTO> routes = new ArrayList<>();
+    private final AtomicLong createdRoutes = new AtomicLong();
+
+    /**
+     * @param baseUrl root of the routes API, e.g. {@code http://localhost:8082/route-service/api/routes}
+     */
+    public LoadGenerator(String baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Creates {@code count} routes with two stops each through the bulk import endpoint.
+     */
+    public void seed(int count) throws IOException, InterruptedException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            RouteDTO route = route("LT-" + i, "LT-O" + (i % ORIGINS), "LT-D" + (i / ORIGINS));
+            routes.add(route);
+            ndjson.append(objectMapper.writeValueAsString(route)).append('\n');
+        }
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200
+                || objectMapper.readValue(response.body(), BulkImportResultDTO.class).getImported() != count) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    public LoadReport run(int concurrency, Duration warmup, Duration duration, double writeRatio)
+            throws InterruptedException {
+        if (routes.isEmpty()) {
+            throw new IllegalStateException("Seed routes before running load");
+        }
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<Operation, LatencyRecorder>>> results = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            results.add(workers.submit(() -> work(measureFrom, end, writeRatio)));
+        }
+        workers.shutdown();
+
+        Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, LatencyRecorder>> result : results) {
+            try {
+                result.get().forEach((operation, recorder) ->
+                        merged.computeIfAbsent(operation, o -> new LatencyRecorder()).addAll(recorder));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed", e.getCause());
+            }
+        }
+        return LoadReport.of(merged, concurrency, duration);
+    }
+
+    private Map<Operation, LatencyRecorder> work(long measureFrom, long end, double writeRatio) {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = pick(random, writeRatio);
+            boolean ok;
+            try {
+                ok = send(operation, random);
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long finished = System.nanoTime();
+            if (now >= measureFrom) {
+                recorders.computeIfAbsent(operation, o -> new LatencyRecorder()).record(finished - now, ok);
+            }
+        }
+        return recorders;
+    }
+
+    private static Operation pick(ThreadLocalRandom random, double writeRatio) {
+        if (random.nextDouble() < writeRatio) {
+            return random.nextInt(4) == 0 ? Operation.CREATE_ROUTE : Operation.UPDATE_ROUTE;
+        }
+        return random.nextInt(100) < 85 ? Operation.SEARCH_AVAILABLE : Operation.ROUTE_EXISTS;
+    }
+
+    private boolean send(Operation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+        RouteDTO route = routes.get(random.nextInt(routes.size()));
+        String origin = route.getOriginCity();
+        String destination = random.nextDouble() < UNKNOWN_PAIR_RATE ? "LT-NOWHERE" : route.getDestinationCity();
+
+        HttpRequest request = switch (operation) {
+            case SEARCH_AVAILABLE -> get("/search/available?origin=" + encode(origin)
+                    + "&destination=" + encode(destination)
+                    + "&travelDate=" + LocalDate.now().plusDays(random.nextInt(14)));
+            case ROUTE_EXISTS -> get("/exists?origin=" + encode(origin) + "&destination=" + encode(destination));
+            case UPDATE_ROUTE -> {
+                RouteDTO update = route(route.getRouteId(), route.getOriginCity(), route.getDestinationCity());
+                update.setRouteDescription("Updated by load test " + random.nextInt());
+                yield json(route.getRouteId(), "PUT", update);
+            }
+            case CREATE_ROUTE -> {
+                long n = createdRoutes.incrementAndGet();
+                yield json("", "POST", route("LT-NEW-" + n, "LT-NEW-O" + n, "LT-NEW-D" + n));
+            }
+        };
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        return status >= 200 && status < 300;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest json(String path, String method, RouteDTO body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + (path.isEmpty() ? "" : "/" + path)))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private static RouteDTO route(String routeId, String originCity, String destinationCity) {
+        return RouteDTO.builder()
+                .routeId(routeId)
+                .routeName(originCity + "-" + destinationCity)
+                .originCity(originCity)
+                .destinationCity(destinationCity)
+                .totalDistance(new BigDecimal("350.0"))
+                .estimatedDuration(new BigDecimal("7.5"))
+                .routeDescription("Load test route")
+                .isActive(true)
+                .stops(List.of(
+                        RouteStopDTO.builder().stopId(routeId + "-S1").cityName(originCity + "-A").stopSequence(1)
+                                .distanceFromOrigin(new BigDecimal("120")).stopType("BOTH").isActive(true).build(),
+                        RouteStopDTO.builder().stopId(routeId + "-S2").cityName(originCity + "-B").stopSequence(2)
+                                .distanceFromOrigin(new BigDecimal("240")).stopType("BOTH").isActive(true).build()))
+                .build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Raw latencies of one operation type; exact percentiles are cheap at load-test sample sizes.
+     */
+    static final class LatencyRecorder {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(LatencyRecorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.nanos[i], true);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        long errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.routeservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Short run of the load-test harness, so it keeps working as the API evolves. It drives real-time
+ * traffic for a few seconds, so it only runs with {@code -Pbenchmark}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@Slf4j
+@Tag("benchmark")
+class LoadGeneratorTest {
+
+    private static StubBusService busService;
+
+    @Autowired
+    private ConfigurableApplicationContext app;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void startBusService() throws IOException {
+        busService = StubBusService.start(0, Duration.ofMillis(5), Duration.ofMillis(5), 0.0, 5);
+    }
+
+    @AfterAll
+    static void stopBusService() {
+        busService.close();
+    }
+
+    @DynamicPropertySource
+    static void busServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("bus-service.url", () -> busService.url());
+    }
+
+    @Test
+    void drivesMixedTrafficAndReportsPercentiles() throws Exception {
+        LoadGenerator generator = new LoadGenerator(LoadTest.baseUrl(app), objectMapper);
+        generator.seed(50);
+
+        LoadReport report = generator.run(4, Duration.ZERO, Duration.ofSeconds(2), 0.3);
+        log.info("Load-test harness smoke run:\n{}", report.format());
+
+        assertThat(report.getOperations()).extracting(LoadReport.OperationStats::operation)
+                .contains("SEARCH_AVAILABLE", "UPDATE_ROUTE");
+        assertThat(report.getTotal().requests()).isPositive();
+        assertThat(report.getTotal().errors()).isZero();
+        assertThat(report.getTotal().p99Millis()).isGreaterThanOrEqualTo(report.getTotal().p50Millis());
+        assertThat(busService.requests()).isPositive();
+    }
+}
@@ -0,0 +1,82 @@
+package com.routeservice.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency percentiles and throughput per operation, plus a row across all operations.
+ */
+public final class LoadReport {
+
+    public record OperationStats(String operation, long requests, long errors, double throughput,
+                                 double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+
+    private final int concurrency;
+    private final Duration duration;
+    private final List<OperationStats> operations;
+    private final OperationStats total;
+
+    private LoadReport(int concurrency, Duration duration, List<OperationStats> operations, OperationStats total) {
+        this.concurrency = concurrency;
+        this.duration = duration;
+        this.operations = operations;
+        this.total = total;
+    }
+
+    static LoadReport of(Map<LoadGenerator.Operation, LoadGenerator.LatencyRecorder> recorders,
+                         int concurrency, Duration duration) {
+        List<OperationStats> operations = new ArrayList<>();
+        LoadGenerator.LatencyRecorder all = new LoadGenerator.LatencyRecorder();
+        recorders.forEach((operation, recorder) -> {
+            operations.add(stats(operation.name(), recorder, duration));
+            all.addAll(recorder);
+        });
+        return new LoadReport(concurrency, duration, operations, stats("TOTAL", all, duration));
+    }
+
+    private static OperationStats stats(String name, LoadGenerator.LatencyRecorder recorder, Duration duration) {
+        long[] sorted = recorder.sorted();
+        double seconds = duration.toNanos() / 1e9;
+        return new OperationStats(name, sorted.length, recorder.errors(), sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0);
+    }
+
+    // Nearest-rank percentile
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1e6;
+    }
+
+    public List<OperationStats> getOperations() {
+        return operations;
+    }
+
+    public OperationStats getTotal() {
+        return total;
+    }
+
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%d workers, %ds measured%n", concurrency, duration.toSeconds()));
+        out.append(String.format("%-18s %9s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (OperationStats stats : operations) {
+            appendRow(out, stats);
+        }
+        appendRow(out, total);
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, OperationStats stats) {
+        out.append(String.format("%-18s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                stats.operation(), stats.requests(), stats.errors(), stats.throughput(),
+                stats.p50Millis(), stats.p95Millis(), stats.p99Millis(), stats.maxMillis()));
+    }
+}
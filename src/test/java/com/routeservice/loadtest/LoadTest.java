@@ -0,0 +1,64 @@
+package com.routeservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.routeservice.RouteserviceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+
+/**
+ * Boots the route service in the {@code loadtest} profile against an embedded database and a
+ * {@link StubBusService}, seeds routes, drives mixed traffic with {@link LoadGenerator} and prints
+ * the report. Everything runs in one JVM on one box:
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.concurrency=64 -Dloadtest.bus.latency-ms=80
+ * </pre>
+ *
+ * Settings are system properties (defaults in brackets): {@code loadtest.routes} [500],
+ * {@code loadtest.concurrency} [32], {@code loadtest.warmup-seconds} [10],
+ * {@code loadtest.duration-seconds} [60], {@code loadtest.write-ratio} [0.1],
+ * {@code loadtest.bus.latency-ms} [40], {@code loadtest.bus.jitter-ms} [20],
+ * {@code loadtest.bus.error-rate} [0.01] and {@code loadtest.bus.trips} [20].
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int routes = Integer.getInteger("loadtest.routes", 500);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60));
+        double writeRatio = Double.parseDouble(System.getProperty("loadtest.write-ratio", "0.1"));
+
+        try (StubBusService busService = StubBusService.start(0,
+                Duration.ofMillis(Long.getLong("loadtest.bus.latency-ms", 40)),
+                Duration.ofMillis(Long.getLong("loadtest.bus.jitter-ms", 20)),
+                Double.parseDouble(System.getProperty("loadtest.bus.error-rate", "0.01")),
+                Integer.getInteger("loadtest.bus.trips", 20));
+             ConfigurableApplicationContext app = new SpringApplicationBuilder(RouteserviceApplication.class)
+                     .profiles("loadtest")
+                     .properties("bus-service.url=" + busService.url())
+                     .run(args)) {
+
+            LoadGenerator generator = new LoadGenerator(baseUrl(app), app.getBean(ObjectMapper.class));
+            generator.seed(routes);
+            LoadReport report = generator.run(concurrency, warmup, duration, writeRatio);
+
+            System.out.printf("%nRoute service load test: %d routes, write ratio %.2f%n", routes, writeRatio);
+            System.out.print(report.format());
+            System.out.printf("Stub bus-service: %d calls, %d injected errors%n",
+                    busService.requests(), busService.injectedErrors());
+        }
+    }
+
+    static String baseUrl(ConfigurableApplicationContext app) {
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        return "http://localhost:" + port
+                + app.getEnvironment().getProperty("server.servlet.context-path", "") + "/api/routes";
+    }
+}
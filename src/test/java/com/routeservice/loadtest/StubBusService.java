@@ -0,0 +1,158 @@
+package com.routeservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.routeservice.dto.TripDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for bus-service's {@code /trips/available} endpoint. Every response waits
+ * {@code latency} plus a uniform random share of {@code jitter}, and fails with a 503 at
+ * {@code errorRate}, so the route service's timeouts and fallbacks can be exercised on demand.
+ */
+public final class StubBusService implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper;
+
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final int tripsPerResponse;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    private StubBusService(int port, Duration latency, Duration jitter, double errorRate, int tripsPerResponse)
+            throws IOException {
+        this.latencyMillis = latency.toMillis();
+        this.jitterMillis = jitter.toMillis();
+        this.errorRate = errorRate;
+        this.tripsPerResponse = tripsPerResponse;
+        this.objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        // Responses sleep, so every in-flight call gets its own thread instead of queueing behind the others
+        this.executor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/bus-service/api/trips/available", this::availableTrips);
+        this.server.start();
+    }
+
+    public static StubBusService start(int port, Duration latency, Duration jitter, double errorRate, int tripsPerResponse)
+            throws IOException {
+        return new StubBusService(port, latency, jitter, errorRate, tripsPerResponse);
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void availableTrips(HttpExchange exchange) throws IOException {
+        requests.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+            if (delay > 0) {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (random.nextDouble() < errorRate) {
+            injectedErrors.increment();
+            send(exchange, 503, "{\"error\":\"injected failure\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        String departureDate = query.getOrDefault("departureDate", LocalDate.now().atStartOfDay().toString());
+        send(exchange, 200, objectMapper.writeValueAsBytes(
+                trips(query.get("origin"), query.get("destination"), LocalDateTime.parse(departureDate))));
+    }
+
+    private List<TripDTO> trips(String origin, String destination, LocalDateTime day) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<TripDTO> trips = new ArrayList<>(tripsPerResponse);
+        for (int t = 0; t < tripsPerResponse; t++) {
+            LocalDateTime departure = day.plusMinutes(random.nextInt(24 * 60));
+            trips.add(TripDTO.builder()
+                    .tripId(origin + "-" + destination + "-" + t)
+                    .busId("B" + t)
+                    .busNumber("MH-12-" + (1000 + t))
+                    .operatorName("Operator " + (t % 7))
+                    .busType(t % 2 == 0 ? "SLEEPER" : "SEATER")
+                    .originCity(origin)
+                    .destinationCity(destination)
+                    .departureDateTime(departure)
+                    .arrivalDateTime(departure.plusHours(9))
+                    .baseFareAmount(BigDecimal.valueOf(30_000 + random.nextInt(150_000), 2))
+                    .availableSeats(random.nextInt(41))
+                    .totalSeats(40)
+                    .tripStatus("SCHEDULED")
+                    .build());
+        }
+        return trips;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.routeservice.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "management.endpoints.web.exposure.include=prometheus",
+                "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+                "management.metrics.distribution.percentiles-histogram.feign.client.requests=true"
+        })
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    private static HttpServer busService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeAll
+    static void startBusService() throws IOException {
+        busService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        busService.createContext("/bus-service/api/trips/available", exchange -> {
+            byte[] body = ("[{\"tripId\":\"T1\",\"originCity\":\"METRICSVILLE\",\"destinationCity\":\"PUNE\"," +
+                    "\"baseFareAmount\":450,\"availableSeats\":12,\"departureDateTime\":\"2025-01-15T08:00:00\"}]")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        busService.start();
+    }
+
+    @AfterAll
+    static void stopBusService() {
+        busService.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void busServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("bus-service.url", () -> "http://localhost:" + busService.getAddress().getPort());
+    }
+
+    @Test
+    void searchIsVisibleInPrometheusScrape() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        restTemplate.postForEntity("/api/routes", new HttpEntity<>(
+                "{\"routeId\":\"M1\",\"routeName\":\"Metrics\",\"originCity\":\"Metricsville\"," +
+                        "\"destinationCity\":\"Pune\",\"totalDistance\":100,\"isActive\":true}", headers), String.class);
+
+        assertThat(restTemplate.getForEntity(
+                "/api/routes/search/available?origin=metricsville&destination=pune&travelDate=2025-01-15", String.class)
+                .getBody()).contains("\"routeId\":\"M1\"");
+
+        String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        assertThat(scrape)
+                .contains("route_service_seconds_bucket")
+                .contains("method=\"searchAvailableRoutesAsync\"")
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/routes/search/available\"")
+                .contains("feign_client_requests_seconds_bucket")
+                .contains("clientName=\"com.routeservice.feign.BusServiceFeignClient\"")
+                .contains("route_jpa_statements_count{method=\"GET\",uri=\"/api/routes/search/available\"} 1")
+                .contains("route_search_routes_sum{search=\"available\"} 1.0")
+                .contains("route_search_trips_sum{search=\"available\"} 1.0")
+                .contains("route_cache_requests_total{cache=\"route-lookup\",result=\"miss\"} 1.0");
+    }
+}
@@ -0,0 +1,73 @@
+package com.routeservice.repository;
+
+import com.routeservice.entity.Route;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CityKeyBackfill.class)
+class CityKeyIndexTest {
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private CityKeyBackfill cityKeyBackfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void entityLifecycleMaintainsKeys() {
+        Route route = routeRepository.saveAndFlush(Route.builder()
+                .routeId("R1").routeName("Pusad-Pune").originCity(" pusad").destinationCity("Pune").build());
+        assertThat(route.getOriginCityKey()).isEqualTo("PUSAD");
+
+        route.setDestinationCity("mumbai");
+        routeRepository.saveAndFlush(route);
+
+        assertThat(routeRepository.findByOriginCityKeyAndDestinationCityKey("PUSAD", "MUMBAI"))
+                .extracting(Route::getRouteId).containsExactly("R1");
+    }
+
+    @Test
+    void backfillNormalizesRowsWithoutKeys() {
+        jdbcTemplate.update("INSERT INTO route (route_id, route_name, origin_city, destination_city, is_active) " +
+                "VALUES ('LEGACY', 'Legacy', 'Nagpur ', 'pune', TRUE)");
+        jdbcTemplate.update("INSERT INTO route_stop (stop_id, route_id, city_name, stop_sequence, is_active) " +
+                "VALUES ('LEGACY-S1', 'LEGACY', 'wardha', 1, TRUE)");
+
+        cityKeyBackfill.backfill();
+
+        assertThat(routeRepository.findByOriginCityKeyAndDestinationCityKey("NAGPUR", "PUNE"))
+                .extracting(Route::getRouteId).containsExactly("LEGACY");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT city_name_key FROM route_stop WHERE stop_id = 'LEGACY-S1'", String.class)).isEqualTo("WARDHA");
+    }
+
+    // Checked on the query plan rather than by timing, which depends on the machine and its load
+    @Test
+    void keyLookupsUseCompositeIndexInsteadOfTableScan() {
+        jdbcTemplate.update("INSERT INTO route (route_id, route_name, origin_city, destination_city, " +
+                "origin_city_key, destination_city_key, is_active) VALUES ('R1', 'Route 1', 'CITY-1', 'DEST-1', 'CITY-1', 'DEST-1', TRUE)");
+
+        String indexedSql = "SELECT route_id FROM route WHERE origin_city_key = ? AND destination_city_key = ? AND is_active = TRUE";
+        String lowerSql = "SELECT route_id FROM route WHERE LOWER(origin_city) = LOWER(?) AND LOWER(destination_city) = LOWER(?)";
+
+        assertThat(explain(indexedSql)).containsIgnoringCase("idx_route_cities_active").doesNotContainIgnoringCase("tableScan");
+        assertThat(explain(lowerSql)).containsIgnoringCase("tableScan");
+        assertThat(explain("SELECT stop_id FROM route_stop WHERE route_id = 'R1' AND is_active = TRUE ORDER BY stop_sequence"))
+                .containsIgnoringCase("idx_route_stop_route_active_seq");
+        assertThat(jdbcTemplate.queryForList(indexedSql, String.class, "CITY-1", "DEST-1")).containsExactly("R1");
+    }
+
+    private String explain(String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql.replace("?", "'X'"), String.class);
+        return plan != null ? plan : "";
+    }
+}
@@ -0,0 +1,94 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.CitySuggestionDTO;
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+import com.routeservice.event.RouteChangeType;
+import com.routeservice.event.RouteChangedEvent;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.repository.RouteStopRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CityIndexTest {
+
+    @Mock
+    private RouteRepository routeRepository;
+
+    @Mock
+    private RouteStopRepository routeStopRepository;
+
+    @InjectMocks
+    private CityIndex cityIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(routeRepository.findWithStopsByIsActiveTrue()).thenReturn(List.of(
+                route("R1", "PUSAD", "PUNE", stop("PUNE-STATION")),
+                route("R2", "NAGPUR", "PUNE", stop("PUSAD")),
+                route("R3", "PUNE", "MUMBAI")));
+        cityIndex.loadAll();
+    }
+
+    @Test
+    void ranksPrefixMatchesByRouteCount() {
+        assertThat(cityIndex.suggest(" pu", 10))
+                .extracting(CitySuggestionDTO::getCityName, CitySuggestionDTO::getRouteCount)
+                .containsExactly(
+                        tuple("PUNE", 3),
+                        tuple("PUSAD", 2),
+                        tuple("PUNE-STATION", 1));
+
+        assertThat(cityIndex.suggest("pu", 1)).extracting(CitySuggestionDTO::getCityName).containsExactly("PUNE");
+        assertThat(cityIndex.suggest("x", 10)).isEmpty();
+        assertThat(cityIndex.suggest("", 10)).isEmpty();
+    }
+
+    @Test
+    void recountsOnlyTheChangedRoute() {
+        Route changed = route("R3", "PUNE", "KOLHAPUR");
+        when(routeRepository.findById("R3")).thenReturn(Optional.of(changed));
+        when(routeStopRepository.findByRouteRouteIdAndIsActiveTrueOrderByStopSequence("R3")).thenReturn(List.of(stop("KARAD")));
+
+        cityIndex.onRouteChanged(RouteChangedEvent.builder().changeType(RouteChangeType.STOP_ADDED).routeId("R3").build());
+
+        assertThat(cityIndex.suggest("m", 10)).isEmpty();
+        assertThat(cityIndex.suggest("k", 10)).extracting(CitySuggestionDTO::getCityName).containsExactly("KARAD", "KOLHAPUR");
+
+        cityIndex.onRouteChanged(RouteChangedEvent.builder().changeType(RouteChangeType.ROUTE_DELETED).routeId("R1").build());
+
+        assertThat(cityIndex.suggest("pu", 10))
+                .extracting(CitySuggestionDTO::getCityName, CitySuggestionDTO::getRouteCount)
+                .containsExactly(tuple("PUNE", 2), tuple("PUSAD", 1));
+    }
+
+    private static Route route(String routeId, String origin, String destination, RouteStop... stops) {
+        Route route = Route.builder()
+                .routeId(routeId)
+                .routeName(routeId)
+                .originCity(origin)
+                .destinationCity(destination)
+                .build();
+        List<RouteStop> routeStops = new ArrayList<>(List.of(stops));
+        routeStops.forEach(stop -> stop.setRoute(route));
+        route.setStops(routeStops);
+        return route;
+    }
+
+    private static RouteStop stop(String city) {
+        return RouteStop.builder().stopId("S-" + city).cityName(city).stopSequence(1).isActive(true).build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteStopDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        RouteSnapshot snapshot = RouteSnapshot.ofRoutes(List.of(
+                route("R1", "PUNE", "NAGPUR", true, stop("R1-S1", "Ahmednagar"), stop("R1-S2", "Aurangabad")),
+                route("R2", "PUNE", "MUMBAI", false)), 42);
+        Path file = directory.resolve("routes.bin");
+
+        RouteSnapshotFile.write(snapshot, file);
+        RouteSnapshot read = RouteSnapshotFile.read(file);
+
+        assertThat(read.sequence()).isEqualTo(42);
+        assertThat(read.routeCount()).isEqualTo(2);
+        assertThat(read.details("Pune", "Nagpur")).isEqualTo(snapshot.details("Pune", "Nagpur"));
+        assertThat(read.search("pune", "nagpur")).isEqualTo(snapshot.search("pune", "nagpur"));
+        assertThat(read.exists("Pune", "Mumbai")).isTrue();
+        assertThat(read.versions("pune", "mumbai")).singleElement()
+                .satisfies(version -> assertThat(version.getRouteId()).isEqualTo("R2"));
+    }
+
+    @Test
+    void appliesChangesOnTopOfAReadSnapshot() throws IOException {
+        Path file = directory.resolve("routes.bin");
+        RouteSnapshotFile.write(RouteSnapshot.ofRoutes(List.of(
+                route("R1", "PUNE", "NAGPUR", true),
+                route("R2", "PUNE", "MUMBAI", true)), 7), file);
+
+        Map<String, RouteDTO> changes = new HashMap<>();
+        changes.put("R1", null);
+        changes.put("R3", route("R3", "PUNE", "GOA", true));
+        RouteSnapshot caughtUp = RouteSnapshotFile.read(file).apply(changes, 9);
+
+        assertThat(caughtUp.sequence()).isEqualTo(9);
+        assertThat(caughtUp.exists("Pune", "Nagpur")).isFalse();
+        assertThat(caughtUp.exists("Pune", "Mumbai")).isTrue();
+        assertThat(caughtUp.details("Pune", "Goa").getRouteId()).isEqualTo("R3");
+    }
+
+    @Test
+    void rejectsADamagedFile() throws IOException {
+        Path file = directory.resolve("routes.bin");
+        RouteSnapshotFile.write(RouteSnapshot.ofRoutes(List.of(route("R1", "PUNE", "NAGPUR", true)), 1), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> RouteSnapshotFile.read(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    private static RouteDTO route(String routeId, String originCity, String destinationCity, boolean active,
+                                  RouteStopDTO... stops) {
+        List<RouteStopDTO> stopList = new ArrayList<>();
+        for (int i = 0; i < stops.length; i++) {
+            stops[i].setRouteId(routeId);
+            stops[i].setStopSequence(i + 1);
+            stopList.add(stops[i]);
+        }
+        return RouteDTO.builder()
+                .routeId(routeId)
+                .routeName("Route " + routeId)
+                .originCity(originCity)
+                .destinationCity(destinationCity)
+                .totalDistance(new BigDecimal("250.50"))
+                .estimatedDuration(new BigDecimal("4.25"))
+                .isActive(active)
+                .stops(stopList)
+                .createdAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6000))
+                .version(3L)
+                .build();
+    }
+
+    private static RouteStopDTO stop(String stopId, String cityName) {
+        return RouteStopDTO.builder()
+                .stopId(stopId)
+                .cityName(cityName)
+                .distanceFromOrigin(new BigDecimal("80.00"))
+                .stopType("BOTH")
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,218 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteSearchRequestDTO;
+import com.routeservice.dto.RouteSearchResponseDTO;
+import com.routeservice.dto.RouteStopDTO;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.service.RouteChangeService;
+import com.routeservice.service.RouteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "route.snapshot.file=" + RouteSnapshotIndexTest.FILE
+})
+class RouteSnapshotIndexTest {
+
+    static final String FILE = "target/route-snapshot-test.bin";
+
+    static {
+        // One left by an earlier run describes another database
+        try {
+            Files.deleteIfExists(Path.of(FILE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private RouteSnapshotIndex routeSnapshotIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RouteChangeService routeChangeService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void freshSnapshotAnswersLikeTheDatabaseWithoutQueries() throws Exception {
+        createRoute("SNAP-1", "Snappur", "Nagpur", true);
+        // An older inactive route on the same pair, which the API would not let us create
+        createRoute("SNAP-0", "Snappur Old", "Nagpur", false);
+        changeRemotely("SNAP-0", "UPDATE route SET origin_city = 'SNAPPUR', origin_city_key = 'SNAPPUR' WHERE route_id = 'SNAP-0'");
+        createRoute("SNAP-3", "Retiredpur", "Nagpur", false);
+        routeService.addStopToRoute("SNAP-1", stop("SNAP-1-S2", "Amravati", 2, true));
+        routeService.addStopToRoute("SNAP-1", stop("SNAP-1-S1", "Wardha", 1, true));
+        routeService.addStopToRoute("SNAP-1", stop("SNAP-1-S3", "Badnera", 3, false));
+        RouteDTO fromDatabase = routeService.getRouteById("SNAP-1");
+        awaitSnapshot();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<RouteSearchResponseDTO> found = routeService.searchRoutes(search("snappur", "nagpur"));
+        RouteDTO details = routeService.getRouteDetails("Snappur", "Nagpur");
+        assertThat(routeService.routeExists("retiredpur", "NAGPUR")).isTrue();
+        assertThat(routeService.routeExists("Snappur", "Retiredpur")).isFalse();
+        assertThat(routeService.findRouteDetailsVersion("snappur", "nagpur")).isPresent();
+        assertThat(routeSnapshotIndex.current().versions("snappur", "nagpur")).hasSize(2);
+        assertThat(routeService.searchRoutes(search("Retiredpur", "Nagpur"))).isEmpty();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(found).singleElement().satisfies(route -> {
+            assertThat(route.getRouteId()).isEqualTo("SNAP-1");
+            assertThat(route.getTotalDistance()).isEqualTo(123.45);
+            assertThat(route.getIntermediateStops()).containsExactly("WARDHA", "AMRAVATI");
+        });
+        fromDatabase.getStops().sort(Comparator.comparing(RouteStopDTO::getStopSequence));
+        assertThat(details).isEqualTo(fromDatabase);
+        assertThatThrownBy(() -> routeService.getRouteDetails("Snappur", "Akola"))
+                .hasMessageContaining("No route found");
+    }
+
+    @Test
+    void staleSnapshotIsNeverServed() throws Exception {
+        createRoute("SNAP-4", "Freshpur", "Nagpur", true);
+        awaitSnapshot();
+
+        RouteDTO update = routeService.getRouteById("SNAP-4");
+        update.setRouteName("Renamed");
+        routeService.updateRoute("SNAP-4", update);
+        assertThat(routeService.getRouteDetails("Freshpur", "Nagpur").getRouteName()).isEqualTo("Renamed");
+
+        // A change made through another node only shows up in the change log
+        awaitSnapshot();
+        changeRemotely("SNAP-4", "UPDATE route SET route_name = 'Elsewhere' WHERE route_id = 'SNAP-4'");
+        routeSnapshotIndex.checkForRemoteChanges();
+        awaitSnapshot();
+        assertThat(routeService.getRouteDetails("Freshpur", "Nagpur").getRouteName()).isEqualTo("Elsewhere");
+    }
+
+    @Test
+    void everySnapshotIsWrittenToTheFile() throws Exception {
+        createRoute("SNAP-5", "Filepur", "Nagpur", true);
+        awaitSnapshot();
+
+        RouteSnapshot current = routeSnapshotIndex.current();
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        RouteSnapshot written = RouteSnapshotFile.read(Path.of(FILE));
+        while (written.sequence() < current.sequence()) {
+            assertThat(System.nanoTime()).as("snapshot written in time").isLessThan(deadline);
+            Thread.sleep(20);
+            written = RouteSnapshotFile.read(Path.of(FILE));
+        }
+        assertThat(written.details("Filepur", "Nagpur")).isEqualTo(current.details("Filepur", "Nagpur"));
+    }
+
+    @Test
+    void snapshotFileServesSearchesButNotLookupsUntilCaughtUp() throws Exception {
+        createRoute("SNAP-6", "Warmpur", "Nagpur", true);
+        awaitSnapshot();
+        Path file = Path.of("target/route-snapshot-restart-test.bin");
+        RouteSnapshotFile.write(routeSnapshotIndex.current(), file);
+        changeRemotely("SNAP-6", "UPDATE route SET route_name = 'Moved on' WHERE route_id = 'SNAP-6'");
+
+        // A restarted node, reading the file a change behind the database
+        RouteSnapshotIndex restarted = new RouteSnapshotIndex(new SimpleMeterRegistry(), file.toString(), 100);
+        ReflectionTestUtils.setField(restarted, "routeRepository", routeRepository);
+        ReflectionTestUtils.setField(restarted, "routeChangeService", routeChangeService);
+        ReflectionTestUtils.setField(restarted, "transactionManager", transactionManager);
+        try {
+            restarted.loadFile();
+            assertThat(restarted.currentForSearch().search("Warmpur", "Nagpur")).singleElement()
+                    .satisfies(route -> assertThat(route.getRouteName()).isEqualTo("Snapshot SNAP-6"));
+
+            // exists and details wait for the catch-up current() just started
+            RouteSnapshot current = restarted.current();
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (current == null) {
+                assertThat(System.nanoTime()).as("snapshot caught up in time").isLessThan(deadline);
+                Thread.sleep(20);
+                current = restarted.current();
+            }
+            assertThat(current.details("Warmpur", "Nagpur").getRouteName()).isEqualTo("Moved on");
+        } finally {
+            restarted.shutdown();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // What another node's write leaves behind: the row change and its change log entry
+    private void changeRemotely(String routeId, String update) {
+        jdbcTemplate.update(update);
+        jdbcTemplate.update("INSERT INTO route_change (sequence, route_id, change_type, changed_at) " +
+                "SELECT last_sequence + 1, ?, 'ROUTE_UPDATED', CURRENT_TIMESTAMP FROM route_change_sequence", routeId);
+        jdbcTemplate.update("UPDATE route_change_sequence SET last_sequence = last_sequence + 1");
+    }
+
+    private void awaitSnapshot() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (routeSnapshotIndex.current() == null) {
+            assertThat(System.nanoTime()).as("snapshot rebuilt in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private void createRoute(String routeId, String originCity, String destinationCity, boolean active) {
+        routeService.createRoute(RouteDTO.builder()
+                .routeId(routeId)
+                .routeName("Snapshot " + routeId)
+                .originCity(originCity)
+                .destinationCity(destinationCity)
+                .totalDistance(new BigDecimal("123.45"))
+                .estimatedDuration(new BigDecimal("3.5"))
+                .isActive(active)
+                .build());
+    }
+
+    private static RouteStopDTO stop(String stopId, String cityName, int sequence, boolean active) {
+        return RouteStopDTO.builder()
+                .stopId(stopId)
+                .cityName(cityName)
+                .stopSequence(sequence)
+                .distanceFromOrigin(BigDecimal.TEN)
+                .stopType("BOTH")
+                .isActive(active)
+                .build();
+    }
+
+    private static RouteSearchRequestDTO search(String originCity, String destinationCity) {
+        RouteSearchRequestDTO request = new RouteSearchRequestDTO();
+        request.setOriginCity(originCity);
+        request.setDestinationCity(destinationCity);
+        return request;
+    }
+}
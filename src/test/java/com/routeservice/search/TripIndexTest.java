@@ -0,0 +1,107 @@
+package com.routeservice.search;
+
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteSearchResponseDTO;
+import com.routeservice.dto.TripDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TripIndexTest {
+
+    private static final RouteDTO EXPRESS = route("R1", "Pusad", "Pune");
+    private static final RouteDTO VIA_NANDED = route("R2", "Pusad", "Pune");
+    private static final RouteDTO NAGPUR = route("R3", "Pusad", "Nagpur");
+
+    @Test
+    void tripsWithARouteIdGoToThatRoute() {
+        TripDTO onExpress = trip("T1", "R1", "Pusad", "Pune", "500", 10);
+        TripDTO onViaNanded = trip("T2", "R2", "Pusad", "Pune", "450", 5);
+
+        Map<String, TripIndex.RouteTrips> byRoute = TripIndex.partition(
+                List.of(EXPRESS, VIA_NANDED), List.of(onExpress, onViaNanded));
+
+        assertThat(byRoute.get("R1")).isEqualTo(new TripIndex.RouteTrips(List.of(onExpress), false));
+        assertThat(byRoute.get("R2")).isEqualTo(new TripIndex.RouteTrips(List.of(onViaNanded), false));
+    }
+
+    @Test
+    void tripsWithoutARouteIdGoToTheOnlyRouteOfTheirPair() {
+        TripDTO toNagpur = trip("T1", null, "pusad ", "NAGPUR", "500", 10);
+        TripDTO elsewhere = trip("T2", null, "Akola", "Nagpur", "700", 30);
+
+        Map<String, TripIndex.RouteTrips> byRoute = TripIndex.partition(List.of(NAGPUR), List.of(toNagpur, elsewhere));
+
+        assertThat(byRoute.get("R3")).isEqualTo(new TripIndex.RouteTrips(List.of(toNagpur), false));
+    }
+
+    @Test
+    void tripsWithoutARouteIdAreFlaggedPairLevelWhenRoutesShareTheirPair() {
+        // What bus-service sends today: no routeId, so the pair is all there is to go by
+        TripDTO first = trip("T1", null, "Pusad", "Pune", "500", 10);
+        TripDTO second = trip("T2", null, "pusad", "PUNE", "450", 5);
+        TripDTO toNagpur = trip("T3", null, "Pusad", "Nagpur", "300", 8);
+        List<TripDTO> trips = List.of(first, second, toNagpur);
+
+        Map<String, TripIndex.RouteTrips> byRoute = TripIndex.partition(List.of(EXPRESS, VIA_NANDED, NAGPUR), trips);
+
+        assertThat(byRoute.get("R1")).isEqualTo(new TripIndex.RouteTrips(List.of(first, second), true));
+        assertThat(byRoute.get("R2")).isEqualTo(new TripIndex.RouteTrips(List.of(first, second), true));
+        assertThat(byRoute.get("R3")).isEqualTo(new TripIndex.RouteTrips(List.of(toNagpur), false));
+        // Pair-level views, like the fare calendar, count each trip once
+        assertThat(TripIndex.matching(List.of(EXPRESS, VIA_NANDED), trips)).containsExactly(first, second);
+    }
+
+    @Test
+    void routeIdTripsStayOnTheirRouteNextToPairLevelTrips() {
+        TripDTO onExpress = trip("T1", "R1", "Pusad", "Pune", "500", 10);
+        TripDTO unassigned = trip("T2", null, "Pusad", "Pune", "450", 5);
+
+        Map<String, TripIndex.RouteTrips> byRoute = TripIndex.partition(
+                List.of(EXPRESS, VIA_NANDED), List.of(onExpress, unassigned));
+
+        assertThat(byRoute.get("R1")).isEqualTo(new TripIndex.RouteTrips(List.of(onExpress, unassigned), true));
+        assertThat(byRoute.get("R2")).isEqualTo(new TripIndex.RouteTrips(List.of(unassigned), true));
+    }
+
+    @Test
+    void summaryToleratesMissingValues() {
+        List<TripDTO> trips = List.of(
+                trip("T1", "R1", "Pusad", "Pune", "500", 10),
+                trip("T2", "R1", "Pusad", "Pune", null, null),
+                trip("T3", "R1", "Pusad", "Pune", "350", 4));
+        trips.get(1).setDepartureDateTime(null);
+
+        RouteSearchResponseDTO response = new RouteSearchResponseDTO();
+        TripSummary.of(trips).applyTo(response);
+
+        assertThat(response.getLowestFare()).isEqualTo(350.0);
+        assertThat(response.getHighestFare()).isEqualTo(500.0);
+        assertThat(response.getTotalAvailableSeats()).isEqualTo(14);
+        assertThat(response.getEarliestDeparture()).isEqualTo("2025-01-15T06:00");
+        assertThat(response.getLatestDeparture()).isEqualTo("2025-01-15T08:00");
+    }
+
+    private static RouteDTO route(String routeId, String origin, String destination) {
+        return RouteDTO.builder().routeId(routeId).originCity(origin).destinationCity(destination).build();
+    }
+
+    private static TripDTO trip(String tripId, String routeId, String origin, String destination,
+                                String fare, Integer seats) {
+        int hour = 5 + Integer.parseInt(tripId.substring(1));
+        return TripDTO.builder()
+                .tripId(tripId)
+                .routeId(routeId)
+                .originCity(origin)
+                .destinationCity(destination)
+                .baseFareAmount(fare != null ? new BigDecimal(fare) : null)
+                .availableSeats(seats)
+                .departureDateTime(LocalDateTime.of(2025, 1, 15, hour, 0))
+                .build();
+    }
+}
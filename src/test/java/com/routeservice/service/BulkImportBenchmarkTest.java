@@ -0,0 +1,137 @@
+package com.routeservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.routeservice.dto.BulkImportResultDTO;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RouteStopDTO;
+import com.routeservice.repository.RouteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the per-route POST /api/routes path with the bulk import on the embedded database.
+ * Absolute numbers depend on the machine; the logged rows/sec are meant for side-by-side comparison.
+ */
+@SpringBootTest
+@Slf4j
+class BulkImportBenchmarkTest {
+
+    private static final int ROUTES = 300;
+    private static final int STOPS_PER_ROUTE = 5;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Tag("benchmark")
+    void bulkImportOutperformsPerRouteCreation() throws Exception {
+        List<RouteDTO> singleRoutes = routes("SINGLE", ROUTES);
+        long singleStart = System.nanoTime();
+        for (RouteDTO route : singleRoutes) {
+            routeService.createRoute(route);
+        }
+        double singleRate = rowsPerSecond(ROUTES, System.nanoTime() - singleStart);
+
+        List<RouteDTO> bulkRoutes = routes("BULK", ROUTES);
+        byte[] body = ndjson(bulkRoutes);
+        long bulkStart = System.nanoTime();
+        BulkImportResultDTO result = bulkImportService.importRoutes(new ByteArrayInputStream(body));
+        double bulkRate = rowsPerSecond(ROUTES, System.nanoTime() - bulkStart);
+
+        log.info("Route import of {} routes x {} stops: createRoute {} rows/sec, bulk {} rows/sec ({}x)",
+                ROUTES, STOPS_PER_ROUTE, Math.round(singleRate), Math.round(bulkRate),
+                String.format("%.1f", bulkRate / singleRate));
+
+        assertThat(result.getImported()).isEqualTo(ROUTES);
+        assertThat(result.getStopsImported()).isEqualTo(ROUTES * STOPS_PER_ROUTE);
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(routeRepository.findWithStopsByRouteId("BULK-7")).get()
+                .satisfies(route -> assertThat(route.getStops()).hasSize(STOPS_PER_ROUTE));
+    }
+
+    @Test
+    void reportsPerRecordErrorsWithoutAbortingTheBatch() throws Exception {
+        List<RouteDTO> routes = routes("MIXED", 5);
+        RouteDTO samePair = routes("MIXED", 1).get(0);
+        samePair.setRouteId("MIXED-DUP");
+        samePair.setStops(null);
+        RouteDTO sameId = routes("MIXED", 2).get(1);
+        sameId.setOriginCity("ELSEWHERE");
+        sameId.setStops(null);
+        routes.add(samePair);
+        routes.add(RouteDTO.builder().routeId("MIXED-BAD").build());
+        routes.add(sameId);
+
+        BulkImportResultDTO result = bulkImportService.importRoutes(new ByteArrayInputStream(ndjson(routes)));
+
+        assertThat(result.getReceived()).isEqualTo(8);
+        assertThat(result.getImported()).isEqualTo(5);
+        assertThat(result.getErrors()).extracting("index").containsExactly(5, 6, 7);
+
+        BulkImportResultDTO again = bulkImportService.importRoutes(new ByteArrayInputStream(ndjson(routes("MIXED", 2))));
+        assertThat(again.getImported()).isZero();
+        assertThat(again.getErrors()).extracting("message")
+                .containsOnly("Route already exists with this ID");
+    }
+
+    private List<RouteDTO> routes(String prefix, int count) {
+        List<RouteDTO> routes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String routeId = prefix + "-" + i;
+            List<RouteStopDTO> stops = new ArrayList<>();
+            for (int s = 1; s <= STOPS_PER_ROUTE; s++) {
+                stops.add(RouteStopDTO.builder()
+                        .stopId(routeId + "-S" + s)
+                        .cityName(prefix + "-STOP-" + s)
+                        .stopSequence(s)
+                        .distanceFromOrigin(BigDecimal.valueOf(s * 10L))
+                        .isActive(true)
+                        .build());
+            }
+            routes.add(RouteDTO.builder()
+                    .routeId(routeId)
+                    .routeName("Route " + routeId)
+                    .originCity(prefix + "-ORIGIN-" + i)
+                    .destinationCity(prefix + "-DEST-" + i)
+                    .totalDistance(BigDecimal.valueOf(100))
+                    .estimatedDuration(BigDecimal.valueOf(2))
+                    .isActive(true)
+                    .stops(stops)
+                    .build());
+        }
+        return routes;
+    }
+
+    private byte[] ndjson(List<RouteDTO> routes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (RouteDTO route : routes) {
+            out.write(objectMapper.writeValueAsBytes(route));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private static double rowsPerSecond(int rows, long nanos) {
+        return rows * 1_000_000_000.0 / nanos;
+    }
+}
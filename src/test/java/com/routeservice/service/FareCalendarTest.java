@@ -0,0 +1,132 @@
+package com.routeservice.service;
+
+import com.routeservice.cache.RouteLookupCache;
+import com.routeservice.cache.TripAvailabilityCache;
+import com.routeservice.dto.FareCalendarDTO;
+import com.routeservice.dto.FareCalendarDayDTO;
+import com.routeservice.dto.TripDTO;
+import com.routeservice.feign.BusServiceClient;
+import com.routeservice.metrics.SearchMetrics;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.repository.projection.RouteSearchRow;
+import com.routeservice.service.impl.RouteServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FareCalendarTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    private final RouteRepository routeRepository = mock(RouteRepository.class);
+    private final BusServiceClient busServiceClient = mock(BusServiceClient.class);
+    private final ThreadPoolTaskExecutor searchExecutor = new ThreadPoolTaskExecutor();
+    private final RouteServiceImpl routeService = new RouteServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        searchExecutor.setCorePoolSize(32);
+        searchExecutor.setMaxPoolSize(32);
+        searchExecutor.initialize();
+
+        ReflectionTestUtils.setField(routeService, "routeRepository", routeRepository);
+        ReflectionTestUtils.setField(routeService, "busServiceClient", busServiceClient);
+        ReflectionTestUtils.setField(routeService, "routeLookupCache", new RouteLookupCache(100, Duration.ofMinutes(1)));
+        ReflectionTestUtils.setField(routeService, "tripAvailabilityCache", new TripAvailabilityCache(
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 100, new SyncTaskExecutor()));
+        ReflectionTestUtils.setField(routeService, "searchExecutor", searchExecutor);
+        ReflectionTestUtils.setField(routeService, "searchMetrics", new SearchMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(routeService, "searchDbTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(routeService, "calendarParallelism", 4);
+        ReflectionTestUtils.setField(routeService, "calendarMaxDays", 60);
+
+        when(routeRepository.findSearchRows("PUSAD", "PUNE"))
+                .thenReturn(List.of(new RouteSearchRow("R1", null, "Pusad", "Pune", "PUSAD", "PUNE", null, null, null)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchExecutor.shutdown();
+    }
+
+    @Test
+    void resolvesRoutesOnceAndBoundsConcurrentTripLookups() throws Exception {
+        ReflectionTestUtils.setField(routeService, "calendarTimeout", Duration.ofSeconds(10));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(busServiceClient.getAvailableTrips(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            int dayOfMonth = LocalDateTime.parse(invocation.getArgument(2, String.class)).getDayOfMonth();
+            return List.of(trip(100 + dayOfMonth, 10), trip(90 + dayOfMonth, 5));
+        });
+
+        FareCalendarDTO calendar = routeService.getFareCalendar("pusad", "Pune", START, 30).get(5, TimeUnit.SECONDS);
+
+        assertThat(calendar.getPartial()).isFalse();
+        assertThat(calendar.getDays()).hasSize(30);
+        FareCalendarDayDTO tenth = calendar.getDays().get(9);
+        assertThat(tenth.getDate()).isEqualTo(LocalDate.of(2025, 1, 10));
+        assertThat(tenth.getLowestFare()).isEqualTo(100.0);
+        assertThat(tenth.getTotalAvailableSeats()).isEqualTo(15);
+
+        verify(routeRepository, times(1)).findSearchRows("PUSAD", "PUNE");
+        // Bus-service gets the city names as the caller sent them, only the cache key is normalized
+        verify(busServiceClient, times(30)).getAvailableTrips(eq("pusad"), eq("Pune"), anyString());
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void returnsPartialCalendarAtTheDeadline() throws Exception {
+        ReflectionTestUtils.setField(routeService, "calendarTimeout", Duration.ofMillis(300));
+        CountDownLatch release = new CountDownLatch(1);
+        when(busServiceClient.getAvailableTrips(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            if (invocation.getArgument(2, String.class).startsWith("2025-01-03")) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return List.of(trip(100, 10));
+        });
+
+        try {
+            FareCalendarDTO calendar = routeService.getFareCalendar("Pusad", "Pune", START, 3).get(5, TimeUnit.SECONDS);
+
+            assertThat(calendar.getPartial()).isTrue();
+            assertThat(calendar.getDays().get(0).getTripCount()).isEqualTo(1);
+            assertThat(calendar.getDays().get(2).getTripCount()).isNull();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static TripDTO trip(int fare, int seats) {
+        return TripDTO.builder()
+                .originCity("Pusad")
+                .destinationCity("Pune")
+                .baseFareAmount(BigDecimal.valueOf(fare))
+                .availableSeats(seats)
+                .departureDateTime(START.atTime(8, 0))
+                .build();
+    }
+}
@@ -0,0 +1,249 @@
+package com.routeservice.service;
+
+import com.routeservice.cache.RouteLookupCache;
+import com.routeservice.cache.RoutePairFilter;
+import com.routeservice.cache.TripAvailabilityCache;
+import com.routeservice.dto.BatchSearchResultDTO;
+import com.routeservice.dto.RouteDTO;
+import com.routeservice.dto.RoutePageDTO;
+import com.routeservice.dto.RouteSearchRequestDTO;
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+import com.routeservice.feign.BusServiceClient;
+import com.routeservice.graph.RouteGraph;
+import com.routeservice.metrics.SearchMetrics;
+import com.routeservice.repository.RouteRepository;
+import com.routeservice.search.CityIndex;
+import com.routeservice.search.RouteSnapshotIndex;
+import com.routeservice.service.impl.RouteServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({RouteServiceImpl.class, RouteLookupCache.class})
+class RouteServiceQueryCountTest {
+
+    @MockitoBean
+    private BusServiceClient busServiceClient;
+
+    @MockitoBean
+    private RouteGraph routeGraph;
+
+    @MockitoBean
+    private CityIndex cityIndex;
+
+    @MockitoBean
+    private RoutePairFilter routePairFilter;
+
+    @MockitoBean
+    private RouteSnapshotIndex routeSnapshotIndex; // no snapshot: every lookup goes to the database
+
+    @MockitoBean
+    private SearchMetrics searchMetrics;
+
+    @MockitoBean
+    private TripAvailabilityCache tripAvailabilityCache;
+
+    @MockitoBean(name = "searchExecutor")
+    private TaskExecutor searchExecutor;
+
+    @MockitoSpyBean
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listingRoutesUsesConstantNumberOfStatements() {
+        insertRoutes(0, 3);
+        long few = countStatements(routeService::getAllRoutes, 3);
+
+        insertRoutes(3, 30);
+        long many = countStatements(routeService::getAllRoutes, 30);
+
+        assertThat(many).isEqualTo(few).isEqualTo(1);
+    }
+
+    @Test
+    void listingActiveRoutesUsesConstantNumberOfStatements() {
+        insertRoutes(0, 3);
+        long few = countStatements(routeService::getActiveRoutes, 3);
+
+        insertRoutes(3, 30);
+        long many = countStatements(routeService::getActiveRoutes, 30);
+
+        assertThat(many).isEqualTo(few).isEqualTo(1);
+    }
+
+    @Test
+    void searchingRoutesLoadsStopsWithTheRoutes() {
+        insertRoutes(0, 5);
+
+        statistics.clear();
+        assertThat(routeService.searchRoutes(RouteSearchRequestDTO.builder()
+                .originCity("city-0")
+                .destinationCity("dest-0")
+                .build()))
+                .singleElement()
+                .satisfies(route -> assertThat(route.getIntermediateStops()).hasSize(3));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pagingCostsTheSameAtAnyDepth() {
+        insertRoutes(0, 25);
+        entityManager.clear();
+
+        String cursor = null;
+        int pages = 0;
+        int seen = 0;
+        do {
+            statistics.clear();
+            RoutePageDTO page = routeService.getRoutesPage(cursor, 10, null, null, true);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+            seen += page.getSize();
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).isEqualTo(25);
+        assertThat(routeService.getRoutesPage(null, 10, "city-7", null, null).getRoutes())
+                .extracting(RouteDTO::getRouteId).containsExactly("R7");
+    }
+
+    @Test
+    void batchSearchResolvesAllPairsInOneStatement() {
+        // Pairs distinct from the other tests, whose lookups share the same cache
+        insertRoutes(10, 15);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(searchExecutor).execute(any());
+        when(tripAvailabilityCache.get(any(), any())).thenReturn(List.of());
+
+        statistics.clear();
+        List<BatchSearchResultDTO> results = routeService.searchRoutesBatch(List.of(
+                        search("city-10", "dest-10"),
+                        search("CITY-11", "DEST-11"),
+                        search(" City-10", "Dest-10"),
+                        search("CITY-12", "DEST-13")))
+                .stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getRequestIndexes()).containsExactly(0, 2);
+        assertThat(results.get(0).getRoutes()).singleElement()
+                .satisfies(route -> assertThat(route.getRouteId()).isEqualTo("R10"));
+        assertThat(results.get(1).getRoutes()).singleElement()
+                .satisfies(route -> assertThat(route.getRouteId()).isEqualTo("R11"));
+        assertThat(results.get(2).getRoutes()).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void existsAndDetailsFallBackToTheDatabaseInReadOnlyTransactions() {
+        when(routePairFilter.mightContain(any(), any())).thenReturn(true);
+        List<Boolean> readOnly = new ArrayList<>();
+        Answer<?> recordReadOnly = invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isActualTransactionActive() &&
+                    TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return List.of();
+        };
+        doAnswer(recordReadOnly).when(routeRepository).findWithStopsByOriginCityKeyAndDestinationCityKey(any(), any());
+        doAnswer(recordReadOnly).when(routeRepository).findVersionsByCityKeys(any(), any());
+
+        assertThat(routeService.routeExists("Nowhere-1", "Elsewhere")).isFalse();
+        assertThatThrownBy(() -> routeService.getRouteDetails("Nowhere-2", "Elsewhere"))
+                .hasMessageContaining("No route found");
+        assertThat(routeService.findRouteDetailsVersion("Nowhere-3", "Elsewhere")).isEmpty();
+
+        assertThat(readOnly).containsExactly(true, true, true);
+    }
+
+    private static RouteSearchRequestDTO search(String origin, String destination) {
+        return RouteSearchRequestDTO.builder()
+                .originCity(origin)
+                .destinationCity(destination)
+                .travelDate(LocalDate.of(2025, 1, 15))
+                .build();
+    }
+
+    private long countStatements(Supplier<List<RouteDTO>> call, int expectedRoutes) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<RouteDTO> routes = call.get();
+
+        assertThat(routes).hasSize(expectedRoutes)
+                .allSatisfy(route -> assertThat(route.getStops()).hasSize(3)
+                        .allSatisfy(stop -> assertThat(stop.getRouteId()).isEqualTo(route.getRouteId())));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void insertRoutes(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Route route = entityManager.persist(Route.builder()
+                    .routeId("R" + i)
+                    .routeName("Route " + i)
+                    .originCity("CITY-" + i)
+                    .destinationCity("DEST-" + i)
+                    .totalDistance(BigDecimal.valueOf(100))
+                    .build());
+            for (int s = 1; s <= 3; s++) {
+                entityManager.persist(RouteStop.builder()
+                        .stopId("R" + i + "-S" + s)
+                        .route(route)
+                        .cityName("STOP-" + s)
+                        .stopSequence(s)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,77 @@
+package com.routeservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.routeservice.dto.BulkImportResultDTO;
+import com.routeservice.repository.RouteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkImportServiceImplTest {
+
+    private final RouteRepository routeRepository = mock(RouteRepository.class);
+    private final BulkImportServiceImpl bulkImportService = new BulkImportServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkImportService, "routeRepository", routeRepository);
+        ReflectionTestUtils.setField(bulkImportService, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(bulkImportService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(bulkImportService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(bulkImportService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(bulkImportService, "chunkSize", 2);
+    }
+
+    @Test
+    void failedChunkIsReportedPerRecordAndTheImportGoesOn() {
+        when(routeRepository.findImportConflicts(any(), any(), any()))
+                .thenThrow(new QueryTimeoutException("conflict check timed out"))
+                .thenReturn(List.of());
+
+        BulkImportResultDTO result = bulkImportService.importRoutes(ndjson(
+                route("R1", "A", "B"), route("R2", "A", "C"), route("R3", "A", "D"), route("R4", "A", "E")));
+
+        assertThat(result.getReceived()).isEqualTo(4);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("routeId").containsExactly("R1", "R2");
+        assertThat(result.getErrors()).extracting("message")
+                .containsOnly("Could not check for existing routes: conflict check timed out");
+    }
+
+    @Test
+    void malformedRecordStopsReadingButKeepsWhatWasImported() {
+        when(routeRepository.findImportConflicts(any(), any(), any())).thenReturn(List.of());
+
+        BulkImportResultDTO result = bulkImportService.importRoutes(ndjson(
+                route("R1", "A", "B"), route("R2", "A", "C"), route("R3", "A", "D"), "{\"routeId\": ", route("R5", "A", "F")));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getIndex()).isEqualTo(3);
+            assertThat(error.getMessage()).startsWith("Unreadable record, import stopped");
+        });
+    }
+
+    private static String route(String routeId, String originCity, String destinationCity) {
+        return "{\"routeId\":\"" + routeId + "\",\"routeName\":\"Route " + routeId + "\",\"originCity\":\"" + originCity +
+                "\",\"destinationCity\":\"" + destinationCity + "\"}";
+    }
+
+    private static ByteArrayInputStream ndjson(String... records) {
+        return new ByteArrayInputStream(String.join("\n", records).getBytes(StandardCharsets.UTF_8));
+    }
+}
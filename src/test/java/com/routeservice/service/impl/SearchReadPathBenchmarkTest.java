@@ -0,0 +1,157 @@
+package com.routeservice.service.impl;
+
+import com.routeservice.dto.RouteSearchResponseDTO;
+import com.routeservice.entity.Route;
+import com.routeservice.entity.RouteStop;
+import com.routeservice.repository.RouteRepository;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.SpecHints;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the route lookup behind searches as it used to be (managed entities with their stops,
+ * converted to DTOs) with the flat read-only projection rows, on the embedded database. Allocation
+ * is measured per lookup on the calling thread; absolute numbers depend on the machine and are
+ * logged for side-by-side comparison.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class SearchReadPathBenchmarkTest {
+
+    private static final int PAIRS = 100;
+    private static final int STOPS_PER_ROUTE = 12;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedRoutes() {
+        seed();
+    }
+
+    @Test
+    void projectionRowsAnswerLikeManagedEntities() {
+        for (int i = 0; i < PAIRS; i++) {
+            String origin = "READPATH-" + i;
+            assertThat(projectionPath(origin)).isEqualTo(entityPath(origin));
+        }
+        assertThat(projectionPath("READPATH-7")).singleElement()
+                .satisfies(route -> assertThat(route.getIntermediateStops()).hasSize(STOPS_PER_ROUTE - 3)
+                        .startsWith("STOP-1", "STOP-2"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void projectionRowsAllocateLessThanManagedEntities() {
+        Measurement entities = measure(this::entityPath);
+        Measurement projections = measure(this::projectionPath);
+
+        log.info("Search route lookup, {} stops per route: entities {} lookups/sec {} bytes/lookup, " +
+                        "projection rows {} lookups/sec {} bytes/lookup ({}x less allocation)",
+                STOPS_PER_ROUTE, Math.round(entities.lookupsPerSecond), entities.bytesPerLookup,
+                Math.round(projections.lookupsPerSecond), projections.bytesPerLookup,
+                String.format("%.1f", (double) entities.bytesPerLookup / projections.bytesPerLookup));
+
+        assertThat(projections.bytesPerLookup).isLessThan(entities.bytesPerLookup);
+    }
+
+    // The lookup as it used to be: active routes as managed entities, stops fetched with them
+    private List<RouteSearchResponseDTO> entityPath(String origin) {
+        EntityGraph<Route> withStops = entityManager.createEntityGraph(Route.class);
+        withStops.addAttributeNodes("stops");
+        return entityManager.createQuery("SELECT r FROM Route r WHERE r.originCityKey = :origin " +
+                        "AND r.destinationCityKey = :destination AND r.isActive = TRUE", Route.class)
+                .setParameter("origin", origin)
+                .setParameter("destination", "READPATH-DEST")
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, withStops)
+                .getResultList().stream()
+                .map(RouteMapper::toRouteDTO)
+                .map(RouteMapper::toSearchResponse)
+                .toList();
+    }
+
+    private List<RouteSearchResponseDTO> projectionPath(String origin) {
+        return RouteMapper.toSearchRouteDTOs(routeRepository.findSearchRows(origin, "READPATH-DEST"))
+                .stream()
+                .map(RouteMapper::toSearchResponse)
+                .toList();
+    }
+
+    private Measurement measure(Function<String, List<RouteSearchResponseDTO>> path) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < PAIRS; i++) {
+                path.apply("READPATH-" + i);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        int lookups = ROUNDS * PAIRS;
+        return new Measurement(lookups * 1_000_000_000.0 / nanos, allocated / lookups);
+    }
+
+    // Every fourth stop is retired, so both paths have to leave some out
+    private void seed() {
+        List<Route> routes = new ArrayList<>();
+        for (int i = 0; i < PAIRS; i++) {
+            Route route = Route.builder()
+                    .routeId("READPATH-" + i)
+                    .routeName("Read path " + i)
+                    .originCity("READPATH-" + i)
+                    .destinationCity("READPATH-DEST")
+                    .routeDescription("Seeded for the read path comparison")
+                    .build();
+            List<RouteStop> stops = new ArrayList<>();
+            for (int s = 1; s <= STOPS_PER_ROUTE; s++) {
+                stops.add(RouteStop.builder()
+                        .stopId(route.getRouteId() + "-S" + s)
+                        .route(route)
+                        .cityName("STOP-" + s)
+                        .stopSequence(s)
+                        .isActive(s % 4 != 0)
+                        .build());
+            }
+            route.setStops(stops);
+            routes.add(route);
+        }
+        transactionTemplate.executeWithoutResult(status -> routes.forEach(entityManager::persist));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM route_stop WHERE route_id LIKE 'READPATH-%'", Integer.class))
+                .isEqualTo(PAIRS * STOPS_PER_ROUTE);
+    }
+
+    private record Measurement(double lookupsPerSecond, long bytesPerLookup) {
+    }
+}